@@ -0,0 +1,65 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/bench/Fixtures.java
+package com.mycompany.graphicalmazegameenhanced.bench;
+
+import com.mycompany.graphicalmazegameenhanced.GameSession;
+import com.mycompany.graphicalmazegameenhanced.MazeGenerator;
+import com.mycompany.graphicalmazegameenhanced.MazeGrid;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/* --------------------------------------------------------------
+   Shared benchmark setup: a session on a generated level of a given
+   size, with an exact number of monsters. Everything is seeded, so
+   two runs (and two machines) measure the same boards.
+   -------------------------------------------------------------- */
+final class Fixtures {
+    static final long SEED = 20_240_601L;
+
+    private Fixtures() {}
+
+    // size x size generated level; monsters < 0 keeps the generator's own placement
+    static GameSession session(int size, int monsters) throws IOException {
+        Path file = Files.createTempFile("bench-maze", ".clmz");
+        file.toFile().deleteOnExit();
+        MazeGenerator.generateToFile(file, SEED, size, size, 'C');
+
+        GameSession session = new GameSession();
+        session.loadMazeFile(file, 1);   // copy-on-write mapping, the file is never touched
+        if (monsters >= 0) {
+            plantMonsters(session.getMaze(), monsters);
+            session.getMonsterManager().resetMonsters();
+        }
+        return session;
+    }
+
+    // Replaces every monster with 'count' new ones on open cells away from the start
+    static void plantMonsters(MazeGrid maze, int count) {
+        int rows = maze.getRows(), cols = maze.getCols();
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < cols; j++)
+                if (maze.get(i, j) == 'M') maze.set(i, j, '.');
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int placed = 0, tries = 0; placed < count; tries++) {
+            if (tries > 100L * count + 1000) throw new IllegalArgumentException(count + " monsters do not fit a " + rows + "x" + cols + " maze");
+            int x = random.nextInt(rows), y = random.nextInt(cols);
+            if (x + y > 6 && maze.get(x, y) == '.') {
+                maze.set(x, y, 'M');
+                placed++;
+            }
+        }
+    }
+
+    // Fixed probe cells for lookups, spread over the whole board
+    static int[] probes(int rows, int cols, int n) {
+        SplittableRandom random = new SplittableRandom(SEED ^ n);
+        int[] cells = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            cells[2 * i] = random.nextInt(rows);
+            cells[2 * i + 1] = random.nextInt(cols);
+        }
+        return cells;
+    }
+}
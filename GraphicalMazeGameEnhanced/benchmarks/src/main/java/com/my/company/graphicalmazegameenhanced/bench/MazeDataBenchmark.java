@@ -0,0 +1,62 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/bench/MazeDataBenchmark.java
+package com.mycompany.graphicalmazegameenhanced.bench;
+
+import com.mycompany.graphicalmazegameenhanced.GameRandom;
+import com.mycompany.graphicalmazegameenhanced.MazeData;
+import com.mycompany.graphicalmazegameenhanced.MazeGrid;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/* --------------------------------------------------------------
+   Level setup costs: copying a level out of the built-in pack and
+   scattering decorations. addRandomDecorations mutates its maze, so it works on
+   a fresh copy every call; copyGrid is that copy on its own, subtract
+   it to get the decoration cost (which includes building the copy's
+   free-cell index). Decoration counts follow endurance mode
+   (size * size / 40).
+   -------------------------------------------------------------- */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MazeDataBenchmark {
+
+    // Separate states, so each benchmark only runs over the parameter it uses
+    @State(Scope.Thread)
+    public static class BuiltIn {
+        @Param({"1", "3", "5"})
+        public int level;
+    }
+
+    @State(Scope.Thread)
+    public static class Board {
+        @Param({"31", "301", "1001"})
+        public int boardSize;
+
+        MazeGrid template;
+
+        @Setup
+        public void setUp() throws Exception {
+            template = Fixtures.session(boardSize, -1).getMaze().copy();
+        }
+    }
+
+    @Benchmark
+    public MazeGrid packGrid(BuiltIn state) {
+        return MazeData.BUILT_IN.grid(state.level);
+    }
+
+    @Benchmark
+    public MazeGrid copyGrid(Board state) {
+        return state.template.copy();
+    }
+
+    @Benchmark
+    public MazeGrid addRandomDecorations(Board state) {
+        MazeGrid maze = state.template.copy();
+        MazeData.addRandomDecorations(maze, state.boardSize * state.boardSize / 40,
+                                      GameRandom.generator(Fixtures.SEED, GameRandom.DECORATIONS, 1));
+        return maze;
+    }
+}
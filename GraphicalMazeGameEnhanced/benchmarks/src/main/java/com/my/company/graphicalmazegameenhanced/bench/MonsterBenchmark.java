@@ -0,0 +1,61 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/bench/MonsterBenchmark.java
+package com.mycompany.graphicalmazegameenhanced.bench;
+
+import com.mycompany.graphicalmazegameenhanced.GameSession;
+import com.mycompany.graphicalmazegameenhanced.MonsterManager;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/* --------------------------------------------------------------
+   Monster turn and occupancy lookups at growing monster counts on a
+   1001x1001 level. 16384 is above MonsterManager's parallel
+   threshold, so it measures the fork-join propose phase.
+
+   Random draws depend on the tick, so moveMonsters advances the
+   session to its next monster step (GameSession.tick) instead of
+   replaying the same tick. The player is walled into the start cell:
+   a catch would end the game and turn every later call into a no-op.
+   -------------------------------------------------------------- */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MonsterBenchmark {
+    private static final int BOARD_SIZE = 1001;
+    private static final int PROBES = 1024;
+
+    @Param({"16", "256", "4096", "16384"})
+    public int monsters;
+
+    private GameSession session;
+    private MonsterManager manager;
+    private int[] probes;
+
+    @Setup
+    public void setUp() throws Exception {
+        session = Fixtures.session(BOARD_SIZE, monsters);
+        session.getMaze().set(1, 2, '#');
+        session.getMaze().set(2, 1, '#');
+        manager = session.getMonsterManager();
+        probes = Fixtures.probes(session.getRows(), session.getCols(), PROBES);
+    }
+
+    @Benchmark
+    public long moveMonsters() {
+        for (int i = session.getMonsterStepTicks(); i > 0; i--) session.tick();
+        return session.getTickCount();
+    }
+
+    // Scores are per lookup: PROBES of them per call
+    @Benchmark
+    @OperationsPerInvocation(PROBES)
+    public int isMonsterAt() {
+        int hits = 0;
+        for (int i = 0; i < probes.length; i += 2) {
+            if (manager.isMonsterAt(probes[i], probes[i + 1])) hits++;
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,64 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/bench/RenderBenchmark.java
+package com.mycompany.graphicalmazegameenhanced.bench;
+
+import com.mycompany.graphicalmazegameenhanced.GamePanel;
+import com.mycompany.graphicalmazegameenhanced.GameScheduler;
+import com.mycompany.graphicalmazegameenhanced.GameSession;
+import com.mycompany.graphicalmazegameenhanced.StoryManager;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/* --------------------------------------------------------------
+   One full board frame (GamePanel.paintComponent via paint) into an
+   offscreen image, the way Swing's back buffer receives it.
+     paintFrame  - steady state, static chunks already cached
+     paintCold   - first frame of a level, every chunk re-rendered
+   -------------------------------------------------------------- */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+    @Param({"31", "301", "1001"})
+    public int boardSize;
+
+    private GameScheduler scheduler;
+    private GamePanel panel;
+    private BufferedImage image;
+
+    @Setup
+    public void setUp() throws Exception {
+        GameSession session = Fixtures.session(boardSize, -1);
+        scheduler = new GameScheduler();
+        panel = new GamePanel(session, new StoryManager(scheduler));
+        Dimension size = panel.getPreferredSize();
+        panel.setSize(size);
+        panel.resetView();
+        image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+        paintFrame();   // fill the chunk cache
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Benchmark
+    public BufferedImage paintFrame() {
+        Graphics2D g = image.createGraphics();
+        panel.paint(g);
+        g.dispose();
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage paintCold() {
+        panel.resetView();
+        return paintFrame();
+    }
+}
@@ -0,0 +1,71 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/bench/SaveLoadBenchmark.java
+package com.mycompany.graphicalmazegameenhanced.bench;
+
+import com.mycompany.graphicalmazegameenhanced.GameSession;
+import com.mycompany.graphicalmazegameenhanced.GameSnapshot;
+import com.mycompany.graphicalmazegameenhanced.SaveLoadManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/* --------------------------------------------------------------
+   Save/load at growing maze sizes, split the way the game splits it:
+     snapshot - on the EDT, copies the state
+     save     - on the save thread, SaveLoadManager.write (temp file,
+                fsync, atomic move), so it includes the disk flush
+     load     - SaveLoadManager.read of that file
+     restore  - back on the EDT, GameSession.restore
+   -------------------------------------------------------------- */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SaveLoadBenchmark {
+    @Param({"31", "301", "1001", "3001"})
+    public int boardSize;
+
+    private GameSession session;
+    private GameSnapshot snapshot;
+    private Path dir, file;
+
+    @Setup
+    public void setUp() throws IOException {
+        session = Fixtures.session(boardSize, -1);
+        snapshot = session.snapshot();
+        dir = Files.createTempDirectory("bench-save");
+        file = dir.resolve("maze_save.dat");
+        SaveLoadManager.write(file, snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public GameSnapshot snapshot() {
+        return session.snapshot();
+    }
+
+    @Benchmark
+    public Path save() throws IOException {
+        SaveLoadManager.write(file, snapshot);
+        return file;
+    }
+
+    @Benchmark
+    public GameSnapshot load() throws IOException {
+        return SaveLoadManager.read(file);
+    }
+
+    @Benchmark
+    public GameSession restore() {
+        session.restore(snapshot);
+        return session;
+    }
+}
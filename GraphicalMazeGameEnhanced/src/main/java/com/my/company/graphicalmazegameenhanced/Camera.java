@@ -0,0 +1,58 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/Camera.java
+package com.mycompany.graphicalmazegameenhanced;
+
+/* --------------------------------------------------------------
+   Viewport onto the maze, in world pixels. It only scrolls when the
+   player gets within MARGIN cells of an edge, and never past the
+   edge of the maze, so most moves leave the view where it is.
+   -------------------------------------------------------------- */
+public class Camera {
+    private static final int MARGIN = 3;   // cells kept between the player and the view edge
+
+    private final int cellSize;
+    private int viewWidth, viewHeight;
+    private int x = 0, y = 0;
+
+    public Camera(int cellSize, int viewWidth, int viewHeight) {
+        this.cellSize = cellSize;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+    }
+
+    public void setViewSize(int width, int height) {
+        viewWidth = width;
+        viewHeight = height;
+    }
+
+    // Returns true when the view moved
+    public boolean follow(int playerRow, int playerCol, int worldRows, int worldCols) {
+        int nx = followAxis(x, playerCol * cellSize, viewWidth, worldCols * cellSize);
+        int ny = followAxis(y, playerRow * cellSize, viewHeight, worldRows * cellSize);
+        boolean moved = nx != x || ny != y;
+        x = nx;
+        y = ny;
+        return moved;
+    }
+
+    // Jumps straight to the player, e.g. after a level load
+    public void centerOn(int playerRow, int playerCol, int worldRows, int worldCols) {
+        x = clamp(playerCol * cellSize + cellSize / 2 - viewWidth / 2, worldCols * cellSize - viewWidth);
+        y = clamp(playerRow * cellSize + cellSize / 2 - viewHeight / 2, worldRows * cellSize - viewHeight);
+    }
+
+    private int followAxis(int origin, int player, int view, int world) {
+        int margin = Math.min(MARGIN * cellSize, Math.max(0, (view - cellSize) / 2));
+        if (player - origin < margin) origin = player - margin;
+        if (player + cellSize - origin > view - margin) origin = player + cellSize - view + margin;
+        return clamp(origin, world - view);
+    }
+
+    private static int clamp(int v, int max) {
+        return Math.max(0, Math.min(v, Math.max(0, max)));
+    }
+
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public int getViewWidth() { return viewWidth; }
+    public int getViewHeight() { return viewHeight; }
+}
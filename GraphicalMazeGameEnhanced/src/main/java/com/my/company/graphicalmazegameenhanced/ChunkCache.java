@@ -0,0 +1,137 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/ChunkCache.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/* --------------------------------------------------------------
+   Pre-rendered static tiles, one image per CHUNK x CHUNK block of
+   cells, kept in an LRU cache. Chunks are rendered on first use and
+   evicted images are recycled for the next chunk, so memory stays at
+   'capacity' images however large the maze is.
+
+   The cache is a few flat arrays scanned linearly: with a few dozen
+   slots that is as fast as a map, and a lookup on the paint path
+   boxes no key and allocates nothing.
+   -------------------------------------------------------------- */
+public class ChunkCache {
+    public static final int CHUNK = 8;   // cells per chunk side
+
+    // Paints the static content of one chunk; (0,0) is the chunk's top-left corner
+    public interface ChunkRenderer {
+        void renderChunk(Graphics2D g, int chunkRow, int chunkCol, Chunk chunk);
+    }
+
+    public static final class Chunk {
+        BufferedImage image;
+        int[] glowCells = new int[4];   // world cell ids (row * cols + col) of items/exits inside
+        int glowCellCount = 0;
+
+        public void addGlowCell(int cellId) {
+            if (glowCellCount == glowCells.length) glowCells = Arrays.copyOf(glowCells, glowCellCount * 2);
+            glowCells[glowCellCount++] = cellId;
+        }
+    }
+
+    private final ChunkRenderer renderer;
+    private final int pixels;
+    private final ArrayDeque<BufferedImage> spare = new ArrayDeque<>();
+    private final long[] keys;
+    private final Chunk[] slots;        // null = free slot
+    private final long[] lastUsed;      // LRU clock value of the slot's last lookup
+    private long clock = 0;
+    private int size = 0;
+    private GraphicsConfiguration config;
+
+    public ChunkCache(ChunkRenderer renderer, int cellSize, int capacity) {
+        this.renderer = renderer;
+        this.pixels = CHUNK * cellSize;
+        this.keys = new long[capacity];
+        this.slots = new Chunk[capacity];
+        this.lastUsed = new long[capacity];
+    }
+
+    public void setGraphicsConfiguration(GraphicsConfiguration gc) {
+        config = gc;
+    }
+
+    public Chunk get(int chunkRow, int chunkCol) {
+        long key = key(chunkRow, chunkCol);
+        int slot = find(key);
+        if (slot >= 0) {
+            lastUsed[slot] = ++clock;
+            return slots[slot];
+        }
+
+        slot = freeSlot();
+        Chunk chunk = new Chunk();
+        chunk.image = spare.isEmpty() ? newImage() : spare.pop();
+        Graphics2D g = chunk.image.createGraphics();
+        try {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, pixels, pixels);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            renderer.renderChunk(g, chunkRow, chunkCol, chunk);
+        } finally {
+            g.dispose();
+        }
+        keys[slot] = key;
+        slots[slot] = chunk;
+        lastUsed[slot] = ++clock;
+        size++;
+        return chunk;
+    }
+
+    // Cached chunk or null, never renders
+    public Chunk peek(int chunkRow, int chunkCol) {
+        int slot = find(key(chunkRow, chunkCol));
+        return slot >= 0 ? slots[slot] : null;
+    }
+
+    public void invalidateCell(int row, int col) {
+        int slot = find(key(row / CHUNK, col / CHUNK));
+        if (slot >= 0) release(slot);
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) if (slots[i] != null) release(i);
+    }
+
+    public int getPixels() { return pixels; }
+    public int size() { return size; }
+
+    private int find(long key) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null && keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    // An empty slot, or the least recently used one after recycling its image
+    private int freeSlot() {
+        int oldest = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == null) return i;
+            if (lastUsed[i] < lastUsed[oldest]) oldest = i;
+        }
+        release(oldest);
+        return oldest;
+    }
+
+    private void release(int slot) {
+        spare.push(slots[slot].image);
+        slots[slot] = null;
+        size--;
+    }
+
+    private BufferedImage newImage() {
+        return config != null ? config.createCompatibleImage(pixels, pixels, Transparency.OPAQUE)
+                              : new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static long key(int chunkRow, int chunkCol) {
+        return ((long) chunkRow << 32) | (chunkCol & 0xFFFFFFFFL);
+    }
+}
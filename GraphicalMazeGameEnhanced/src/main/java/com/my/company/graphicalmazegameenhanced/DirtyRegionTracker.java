@@ -0,0 +1,90 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/DirtyRegionTracker.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Arrays;
+
+/* --------------------------------------------------------------
+   Collects the board cells that changed since the last repaint and
+   hands Swing only the coalesced rectangles around them, so a frame
+   costs what actually changed rather than the whole board. The
+   rectangles are pooled: regions[0, count) are live, the slots after
+   them are kept for reuse, so marking allocates nothing once warm.
+   -------------------------------------------------------------- */
+public class DirtyRegionTracker {
+    private final int cellSize;
+    private Rectangle[] regions = new Rectangle[16];
+    private int count = 0;
+    private boolean fullRepaint = false;
+
+    public DirtyRegionTracker(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    // Marks one cell, grown by 'pad' pixels for sprites that overdraw their cell (glow, boss aura)
+    public void markCell(int row, int col, int pad) {
+        markRect(col * cellSize - pad, row * cellSize - pad, cellSize + 2 * pad, cellSize + 2 * pad);
+    }
+
+    public void markRect(int x, int y, int w, int h) {
+        if (fullRepaint || w <= 0 || h <= 0) return;
+        if (count == regions.length) regions = Arrays.copyOf(regions, count * 2);
+        if (regions[count] == null) regions[count] = new Rectangle();
+        Rectangle r = regions[count];   // the candidate always sits just past the live regions
+        r.setBounds(x, y, w, h);
+
+        // Merge with every region it touches until nothing overlaps any more
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = 0; i < count; i++) {
+                Rectangle other = regions[i];
+                if (touches(r, other)) {
+                    r.add(other);
+                    // the last live region fills the hole, 'other' goes back to the pool
+                    regions[i] = regions[count - 1];
+                    regions[count - 1] = r;
+                    regions[count] = other;
+                    count--;
+                    merged = true;
+                    break;
+                }
+            }
+        }
+        count++;
+    }
+
+    public void markAll() {
+        fullRepaint = true;
+        count = 0;
+    }
+
+    public boolean isEmpty() {
+        return !fullRepaint && count == 0;
+    }
+
+    // Issues one repaint per coalesced rectangle and resets the tracker
+    public void flush(JComponent target) {
+        flush(target, 0, 0);
+    }
+
+    // Same, for regions marked in world pixels while the component shows the world from (originX, originY)
+    public void flush(JComponent target, int originX, int originY) {
+        if (fullRepaint) {
+            target.repaint();
+        } else {
+            for (int i = 0; i < count; i++) {
+                Rectangle r = regions[i];
+                target.repaint(r.x - originX, r.y - originY, r.width, r.height);
+            }
+        }
+        count = 0;
+        fullRepaint = false;
+    }
+
+    private static boolean touches(Rectangle a, Rectangle b) {
+        return a.x <= b.x + b.width && b.x <= a.x + a.width &&
+               a.y <= b.y + b.height && b.y <= a.y + a.height;
+    }
+}
@@ -0,0 +1,153 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/FieldOfView.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.util.Arrays;
+
+/* --------------------------------------------------------------
+   What the player can see, by recursive shadowcasting: each of the
+   eight octants around the player is scanned row by row outwards,
+   and a wall narrows the slopes the rows beyond it still see, so
+   every cell within RADIUS is visited at most once per octant.
+
+   Like FlowField it only covers a (2*RADIUS+1)^2 window centred on
+   the player and is recomputed only when the player moves or a new
+   maze is loaded; a stamp per cell marks which cells the current
+   view lit, so recomputing never clears the window.
+
+   Everything ever seen on the level is kept in a bitset (one bit per
+   cell) for fog of war; GameSession snapshots it with the level. A
+   count of explored cells per ChunkCache chunk lets the renderer skip
+   chunks nobody has seen without looking at their bits.
+   -------------------------------------------------------------- */
+public class FieldOfView {
+    public static final int RADIUS = 6;
+    private static final int SIZE = 2 * RADIUS + 1;
+
+    // Octant transforms {xx, xy, yx, yy}: cell = player + across * (xx, yx) - depth * (xy, yy)
+    private static final int[][] OCTANTS = {
+        {1, 0, 0, 1}, {0, 1, 1, 0}, {0, -1, 1, 0}, {-1, 0, 0, 1},
+        {-1, 0, 0, -1}, {0, -1, -1, 0}, {0, 1, -1, 0}, {1, 0, 0, -1}
+    };
+
+    private final int[] stamp = new int[SIZE * SIZE];
+    private int currentStamp = 0;
+
+    private MazeGrid maze;
+    private int originX = -1, originY = -1;
+    private long[] explored = new long[0];
+    private int[] chunkExplored = new int[0];   // explored cells per CHUNK x CHUNK block
+    private int chunkCols;
+
+    // New level: nothing explored yet
+    public void reset(MazeGrid maze) {
+        restore(maze, null);
+    }
+
+    // Level restored from a snapshot, with what had been explored on it (null for nothing)
+    public void restore(MazeGrid maze, long[] exploredBits) {
+        this.maze = maze;
+        originX = originY = -1;
+        int words = exploredWords(maze.getRows(), maze.getCols());
+        explored = exploredBits != null && exploredBits.length == words ? exploredBits.clone() : new long[words];
+
+        int chunk = ChunkCache.CHUNK, cols = maze.getCols();
+        chunkCols = (cols + chunk - 1) / chunk;
+        chunkExplored = new int[((maze.getRows() + chunk - 1) / chunk) * chunkCols];
+        for (int w = 0; w < explored.length; w++) {
+            for (long bits = explored[w]; bits != 0; bits &= bits - 1) {
+                long cell = ((long) w << 6) + Long.numberOfTrailingZeros(bits);
+                chunkExplored[chunkOf((int) (cell / cols), (int) (cell % cols))]++;
+            }
+        }
+    }
+
+    // Recomputes the view if the player moved since the last call
+    public void update(int playerX, int playerY) {
+        if (maze == null || (playerX == originX && playerY == originY)) return;
+        originX = playerX;
+        originY = playerY;
+        if (++currentStamp == 0) {   // wrapped: old stamps could collide, start over
+            Arrays.fill(stamp, 0);
+            currentStamp = 1;
+        }
+        light(playerX, playerY);
+        for (int[] o : OCTANTS) castLight(1, 1.0, 0.0, o[0], o[1], o[2], o[3]);
+    }
+
+    // Scans rows 'depth'..RADIUS of one octant between slopes 'start' and 'end' (1 = diagonal, 0 = straight out)
+    private void castLight(int depth, double start, double end, int xx, int xy, int yx, int yy) {
+        if (start < end) return;
+        double nextStart = start;
+        for (int d = depth; d <= RADIUS; d++) {
+            boolean blocked = false;
+            for (int across = -d; across <= 0; across++) {
+                double leftSlope = (across - 0.5) / (-d + 0.5), rightSlope = (across + 0.5) / (-d - 0.5);
+                if (start < rightSlope) continue;
+                if (end > leftSlope) break;
+
+                int x = originX + across * xx - d * xy, y = originY + across * yx - d * yy;
+                boolean inside = maze.inBounds(x, y);
+                if (inside && d * d + across * across <= RADIUS * RADIUS) light(x, y);
+                boolean opaque = !inside || isOpaque(maze.get(x, y));
+                if (blocked) {
+                    if (opaque) {
+                        nextStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = nextStart;
+                    }
+                } else if (opaque && d < RADIUS) {
+                    blocked = true;
+                    castLight(d + 1, start, leftSlope, xx, xy, yx, yy);
+                    nextStart = rightSlope;
+                }
+            }
+            if (blocked) break;
+        }
+    }
+
+    private void light(int x, int y) {
+        stamp[(x - originX + RADIUS) * SIZE + (y - originY + RADIUS)] = currentStamp;
+        long cell = (long) x * maze.getCols() + y;
+        int w = (int) (cell >>> 6);
+        if ((explored[w] & (1L << cell)) != 0) return;
+        explored[w] |= 1L << cell;
+        chunkExplored[chunkOf(x, y)]++;
+    }
+
+    private int chunkOf(int row, int col) {
+        return (row / ChunkCache.CHUNK) * chunkCols + col / ChunkCache.CHUNK;
+    }
+
+    private static boolean isOpaque(char tile) {
+        return tile == '#' || tile == 'W';
+    }
+
+    /* --------------------------------------------------------------
+       QUERIES
+       -------------------------------------------------------------- */
+    public boolean isVisible(int x, int y) {
+        int r = x - originX + RADIUS, c = y - originY + RADIUS;
+        return r >= 0 && r < SIZE && c >= 0 && c < SIZE && stamp[r * SIZE + c] == currentStamp;
+    }
+
+    public boolean isExplored(int x, int y) {
+        if (maze == null || !maze.inBounds(x, y)) return false;
+        long cell = (long) x * maze.getCols() + y;
+        return (explored[(int) (cell >>> 6)] & (1L << cell)) != 0;
+    }
+
+    // How many cells of chunk (chunkRow, chunkCol) have been seen; 0 means it can be skipped entirely
+    public int exploredInChunk(int chunkRow, int chunkCol) {
+        return chunkExplored[chunkRow * chunkCols + chunkCol];
+    }
+
+    // Copy of the explored bits, row-major, bit (cell & 63) of word (cell >>> 6)
+    public long[] exploredBits() {
+        return explored.clone();
+    }
+
+    public static int exploredWords(int rows, int cols) {
+        return (int) (((long) rows * cols + 63) >>> 6);
+    }
+}
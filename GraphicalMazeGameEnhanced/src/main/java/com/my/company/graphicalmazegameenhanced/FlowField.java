@@ -0,0 +1,90 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/FlowField.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.util.Arrays;
+
+/* --------------------------------------------------------------
+   One BFS distance field around the player, shared by every monster.
+   A chaser just steps to the neighbour one closer to the player, so
+   pursuit costs O(1) per monster however many there are.
+
+   The field only covers a (2*RADIUS+1)^2 window centred on the
+   player – nothing further away chases anyway – and walls never move
+   within a level, so it is rebuilt only when the player moves or a
+   new maze is loaded. A stamp per cell marks which distances belong
+   to the current build, so rebuilding never clears the arrays.
+   -------------------------------------------------------------- */
+public class FlowField {
+    public static final int RADIUS = 8;             // furthest distance any chaser reacts to
+    private static final int SIZE = 2 * RADIUS + 1;
+
+    // Indexed by facing: 0=up, 1=right, 2=down, 3=left
+    private static final int[] DIR_X = {-1, 0, 1, 0};
+    private static final int[] DIR_Y = {0, 1, 0, -1};
+
+    private final int[] dist = new int[SIZE * SIZE];
+    private final int[] stamp = new int[SIZE * SIZE];
+    private final int[] queue = new int[SIZE * SIZE];
+    private int currentStamp = 0;
+
+    private MazeGrid maze;
+    private int originX = -1, originY = -1;
+
+    // Rebuilds the field if the player moved or the maze changed since the last call
+    public void update(MazeGrid maze, int playerX, int playerY) {
+        if (maze == this.maze && playerX == originX && playerY == originY) return;
+        this.maze = maze;
+        originX = playerX;
+        originY = playerY;
+        if (++currentStamp == 0) {   // wrapped: old stamps could collide, start over
+            Arrays.fill(stamp, 0);
+            currentStamp = 1;
+        }
+
+        int head = 0, tail = 0;
+        int start = index(playerX, playerY);
+        stamp[start] = currentStamp;
+        dist[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int k = queue[head++];
+            int d = dist[k];
+            if (d == RADIUS) continue;
+            int x = originX - RADIUS + k / SIZE, y = originY - RADIUS + k % SIZE;
+            for (int dir = 0; dir < 4; dir++) {
+                int nx = x + DIR_X[dir], ny = y + DIR_Y[dir];
+                int n = index(nx, ny);
+                if (n < 0 || stamp[n] == currentStamp || !MonsterManager.isWalkable(maze, nx, ny)) continue;
+                stamp[n] = currentStamp;
+                dist[n] = d + 1;
+                queue[tail++] = n;
+            }
+        }
+    }
+
+    // Steps from (x,y) to the player, or -1 when unreachable within 'radius'
+    public int distanceAt(int x, int y, int radius) {
+        int k = index(x, y);
+        if (k < 0 || stamp[k] != currentStamp || dist[k] > radius) return -1;
+        return dist[k];
+    }
+
+    // Facing that moves (x,y) one step closer to the player, trying directions from 'firstDir' on; -1 if none
+    public int directionFrom(int x, int y, int radius, int firstDir) {
+        int d = distanceAt(x, y, radius);
+        if (d <= 0) return -1;
+        for (int i = 0; i < 4; i++) {
+            int dir = (firstDir + i) & 3;
+            if (distanceAt(x + DIR_X[dir], y + DIR_Y[dir], radius) == d - 1) return dir;
+        }
+        return -1;
+    }
+
+    // Window index of a world cell, or -1 outside the window
+    private int index(int x, int y) {
+        int r = x - originX + RADIUS, c = y - originY + RADIUS;
+        if (r < 0 || r >= SIZE || c < 0 || c >= SIZE) return -1;
+        return r * SIZE + c;
+    }
+}
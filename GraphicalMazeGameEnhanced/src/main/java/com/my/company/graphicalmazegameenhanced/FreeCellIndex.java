@@ -0,0 +1,65 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/FreeCellIndex.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/* --------------------------------------------------------------
+   Every free ('.') cell of a MazeGrid, for O(1) random placement.
+   cells[0, size) holds the free cell ids (row * cols + col) in no
+   particular order and slot[id] - 1 is where each one sits, so adding,
+   removing (swap with the last) and picking a random free cell are
+   all constant time, however full or sparse the maze is.
+
+   Built by MazeGrid.scanFreeCells() for one round of placement and
+   then dropped; the grid never keeps it, so tile changes during play
+   pay nothing. It costs 8 bytes per cell, so huge mapped mazes only
+   pay for it if something places on them, and only while it does.
+   -------------------------------------------------------------- */
+public final class FreeCellIndex {
+    private final int cols;
+    private final int[] cells;
+    private final int[] slot;    // position + 1, so the zero a new array starts with means "not free"
+    private int size = 0;
+
+    // Scans the packed tiles directly (two per byte, see MazeGrid); 'freeCode' is the 4-bit code of '.'
+    FreeCellIndex(int rows, int cols, ByteBuffer packed, int freeCode) {
+        long total = (long) rows * cols;
+        if (total > Integer.MAX_VALUE - 8) throw new IllegalStateException("Maze too large for a free-cell index");
+        this.cols = cols;
+        cells = new int[(int) total];
+        slot = new int[(int) total];
+        for (int at = 0, id = 0; id < total; at++, id += 2) {
+            int b = packed.get(at);
+            if ((b & 0x0F) == freeCode) add(id);
+            if (((b >>> 4) & 0x0F) == freeCode && id + 1 < total) add(id + 1);
+        }
+    }
+
+    // The placer keeps the index in step with the tiles it sets
+    void add(int id) {
+        if (slot[id] != 0) return;
+        cells[size++] = id;
+        slot[id] = size;
+    }
+
+    void remove(int id) {
+        int at = slot[id] - 1;
+        if (at < 0) return;
+        int last = cells[--size];
+        cells[at] = last;
+        slot[last] = at + 1;
+        slot[id] = 0;
+    }
+
+    // A uniformly random free cell id; it stays free until the caller sets its tile
+    public int pick(SplittableRandom random) {
+        if (size == 0) throw new IllegalStateException("No free cells left");
+        return cells[random.nextInt(size)];
+    }
+
+    public boolean isFree(int row, int col) { return slot[row * cols + col] != 0; }
+    public int size() { return size; }
+    public int rowOf(int id) { return id / cols; }
+    public int colOf(int id) { return id % cols; }
+}
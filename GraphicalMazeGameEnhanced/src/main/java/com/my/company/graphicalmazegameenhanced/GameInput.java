@@ -0,0 +1,24 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/GameInput.java
+package com.mycompany.graphicalmazegameenhanced;
+
+/* --------------------------------------------------------------
+   Player commands understood by GameSession.step(). Facing values
+   match the 0=up, 1=right, 2=down, 3=left convention of the sprites.
+   -------------------------------------------------------------- */
+public enum GameInput {
+    UP(-1, 0, 0),
+    RIGHT(0, 1, 1),
+    DOWN(1, 0, 2),
+    LEFT(0, -1, 3),
+    INTERACT(0, 0, -1);
+
+    public final int dx, dy, facing;
+
+    GameInput(int dx, int dy, int facing) {
+        this.dx = dx;
+        this.dy = dy;
+        this.facing = facing;
+    }
+
+    public boolean isMove() { return facing >= 0; }
+}
@@ -0,0 +1,21 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/GameListener.java
+package com.mycompany.graphicalmazegameenhanced;
+
+/* --------------------------------------------------------------
+   Events emitted by GameSession. Every method has an empty default so
+   a headless run can listen to nothing at all and a view only
+   overrides what it renders or plays.
+   -------------------------------------------------------------- */
+public interface GameListener {
+    default void onLog(String text) {}
+    default void onCellChanged(int x, int y) {}
+    default void onStaticTileChanged(int x, int y) {}   // a decoration ('T') was walked over and is gone
+    default void onLevelLoaded(int level) {}
+    default void onRestored() {}
+    default void onItemCollected(int x, int y) {}
+    default void onItemNearby() {}
+    default void onExitLocked() {}
+    default void onSageSpoke(String message) {}
+    default void onGameOver() {}
+    default void onWin() {}
+}
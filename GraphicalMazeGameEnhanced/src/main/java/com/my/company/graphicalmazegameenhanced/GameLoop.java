@@ -0,0 +1,80 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/GameLoop.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import javax.swing.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+/* --------------------------------------------------------------
+   Fixed-timestep loop on the EDT. A Swing Timer fires at the target
+   frame rate; each frame adds the real elapsed time to an
+   accumulator, runs as many fixed simulation ticks as fit, and then
+   renders once with 'alpha' – how far the clock already is into the
+   next tick – so motion can be interpolated between ticks.
+   Simulation speed therefore no longer depends on how often the
+   timer manages to fire.
+   -------------------------------------------------------------- */
+public class GameLoop implements ActionListener {
+    // After a long stall, catch up at most this many ticks and drop the rest
+    private static final int MAX_TICKS_PER_FRAME = 5;
+
+    public interface Client {
+        void update();                              // one fixed tick
+        void render(double alpha, long nowNanos);   // once per frame, alpha in [0, 1)
+    }
+
+    private final Client client;
+    private final long tickNanos;
+    private final Timer timer;
+    private long lastNanos;
+    private long accumulator;
+
+    // Budgets of the most recent frame, for profiling
+    private long lastUpdateNanos, lastRenderNanos;
+    private int lastTicks;
+
+    public GameLoop(Client client, int ticksPerSecond, int framesPerSecond) {
+        this.client = client;
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.timer = new Timer(Math.max(1, 1000 / framesPerSecond), this);
+        timer.setCoalesce(true);
+    }
+
+    public void start() {
+        if (timer.isRunning()) return;
+        lastNanos = System.nanoTime();
+        accumulator = 0;
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+
+    public boolean isRunning() { return timer.isRunning(); }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        long now = System.nanoTime();
+        accumulator += now - lastNanos;
+        lastNanos = now;
+
+        int ticks = 0;
+        while (accumulator >= tickNanos && ticks < MAX_TICKS_PER_FRAME) {
+            client.update();
+            accumulator -= tickNanos;
+            ticks++;
+        }
+        if (accumulator >= tickNanos) accumulator %= tickNanos;   // too far behind: skip, don't spiral
+        long rendered = System.nanoTime();
+
+        client.render((double) accumulator / tickNanos, rendered);
+        lastTicks = ticks;
+        lastUpdateNanos = rendered - now;
+        lastRenderNanos = System.nanoTime() - rendered;
+    }
+
+    public long getLastUpdateNanos() { return lastUpdateNanos; }
+    public long getLastRenderNanos() { return lastRenderNanos; }
+    public int getLastTicks() { return lastTicks; }
+}
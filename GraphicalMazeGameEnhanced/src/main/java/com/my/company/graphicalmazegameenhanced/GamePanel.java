@@ -3,230 +3,504 @@ package com.mycompany.graphicalmazegameenhanced;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Random;
+import java.awt.image.BufferedImage;
 
 public class GamePanel extends JPanel {
-    private final GraphicalMazeGameEnhanced game;
-    private final MonsterManager monsterManager;
+    private static final int GLOW_PAD = Theme.HALO_PAD;          // item glow reaches past its cell
+    private static final int BOSS_AURA_PAD = Theme.SPRITE_PAD;   // sprites (boss aura) overhang their cell
+    private final GameSession session;
     private final StoryManager storyManager;
-    private final Random random = new Random();
+
+    // Static tiles live in chunk images around the camera; only what is on screen gets drawn
+    private final Camera camera;
+    private final ChunkCache chunks;
+    private final DirtyRegionTracker dirtyRegions = new DirtyRegionTracker(GraphicalMazeGameEnhanced.CELL_SIZE);
+
+    // Glow pulses on wall-clock time in 80 ms steps, 0.3 -> 0.9 -> 0.3 (see Theme.glowAlpha)
+    private static final long GLOW_STEP_NANOS = 80_000_000L;
+    private static final int GLOW_HALF_STEPS = Theme.GLOW_LEVELS - 1;
+    private int glowLevel = 3;
+    private long glowStep = -1;
+
+    private final Rectangle clipBounds = new Rectangle();     // reused by every paint
+    private final Rectangle bubbleBounds = new Rectangle();
+
+    // 0 = monsters drawn at their previous cell, 1 = at their current cell
+    private double monsterProgress = 1.0;
 
     private boolean paused = false;
     public void setPaused(boolean p) { paused = p; repaint(); }
 
-    public GamePanel(GraphicalMazeGameEnhanced game, MonsterManager mm, StoryManager sm) {
-        this.game = game;
-        this.monsterManager = mm;
+    // F3 overlay; the monitor is optional so headless renders work without one
+    private static final Rectangle OVERLAY_BOUNDS = new Rectangle(4, 4, 260, 86);
+    private PerfMonitor perfMonitor;
+    private boolean perfOverlay = false;
+    public void setPerfMonitor(PerfMonitor monitor) { perfMonitor = monitor; }
+    public void togglePerfOverlay() { perfOverlay = !perfOverlay; repaint(); }
+    public boolean isPerfOverlayVisible() { return perfOverlay; }
+    public void markOverlayDirty() { repaint(OVERLAY_BOUNDS); }
+
+    // F toggles fog of war: unexplored cells stay black, explored ones out of sight are shaded
+    private boolean fog = false;
+    private int fogX = -1, fogY = -1;   // player cell the fog was last drawn around
+    public void toggleFog() { fog = !fog; dirtyRegions.markAll(); repaint(); }
+    public boolean isFogEnabled() { return fog; }
+
+    // Sets the glow for this moment; true when it changed and glowing cells need a repaint
+    public boolean updateGlow(long nowNanos) {
+        long step = nowNanos / GLOW_STEP_NANOS;
+        if (step == glowStep) return false;
+        glowStep = step;
+        int phase = (int) (step % (2 * GLOW_HALF_STEPS));
+        glowLevel = phase <= GLOW_HALF_STEPS ? phase : 2 * GLOW_HALF_STEPS - phase;
+        return true;
+    }
+
+    public void setMonsterProgress(double progress) { monsterProgress = progress; }
+
+    public GamePanel(GameSession session, StoryManager sm) {
+        this.session = session;
         this.storyManager = sm;
-        setPreferredSize(new Dimension(GraphicalMazeGameEnhanced.COLS * GraphicalMazeGameEnhanced.CELL_SIZE,
-                                       GraphicalMazeGameEnhanced.ROWS * GraphicalMazeGameEnhanced.CELL_SIZE));
+        int CELL_SIZE = GraphicalMazeGameEnhanced.CELL_SIZE;
+        int viewW = GraphicalMazeGameEnhanced.VIEW_COLS * CELL_SIZE, viewH = GraphicalMazeGameEnhanced.VIEW_ROWS * CELL_SIZE;
+        setPreferredSize(new Dimension(viewW, viewH));
+        setBackground(Color.BLACK);
+        camera = new Camera(CELL_SIZE, viewW, viewH);
+
+        // Enough chunks for two screens' worth, so walking back and forth rarely re-renders
+        int span = ChunkCache.CHUNK * CELL_SIZE;
+        int visible = (viewW / span + 2) * (viewH / span + 2);
+        chunks = new ChunkCache(this::renderChunk, CELL_SIZE, visible * 2);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        chunks.setGraphicsConfiguration(getGraphicsConfiguration());
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        camera.setViewSize(width, height);
+        followPlayer();
     }
 
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
+        long started = System.nanoTime();
+        PerfEvents.Render event = new PerfEvents.Render();
+        event.begin();
+        paintBoard(g);
+        if (perfMonitor != null) {
+            perfMonitor.recordRender(System.nanoTime() - started);
+            if (perfOverlay) drawPerfOverlay((Graphics2D) g);
+        }
+        if (event.shouldCommit()) {
+            Rectangle clip = g.getClipBounds();
+            event.clipWidth = clip != null ? clip.width : getWidth();
+            event.clipHeight = clip != null ? clip.height : getHeight();
+            event.cachedChunks = chunks.size();
+            event.commit();
+        }
+    }
+
+    private void drawPerfOverlay(Graphics2D g) {
+        g.setColor(Theme.OVERLAY_BACK);
+        g.fillRect(OVERLAY_BOUNDS.x, OVERLAY_BOUNDS.y, OVERLAY_BOUNDS.width, OVERLAY_BOUNDS.height);
+        g.setColor(Color.GREEN);
+        g.setFont(Theme.OVERLAY_FONT);
+        int y = OVERLAY_BOUNDS.y + 15;
+        for (String line : perfMonitor.getOverlayLines()) {
+            g.drawString(line, OVERLAY_BOUNDS.x + 6, y);
+            y += 16;
+        }
+    }
+
+    // Allocation-free once warm: static tiles come from the chunk cache, everything else is a Theme sprite
+    private void paintBoard(Graphics g) {
+        // What JPanel.paintComponent does, minus the Graphics copy it makes for it every frame.
+        // Under fog this black is all an unexplored cell ever gets.
+        g.setColor(fog ? Color.BLACK : getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        char[][] maze = game.getMaze();
+        MazeGrid maze = session.getMaze();
         if (maze == null) return;
-        int ROWS = GraphicalMazeGameEnhanced.ROWS;
-        int COLS = GraphicalMazeGameEnhanced.COLS;
+        int ROWS = session.getRows();
+        int COLS = session.getCols();
         int CELL_SIZE = GraphicalMazeGameEnhanced.CELL_SIZE;
-        float glowAlpha = game.getGlowAlpha();
-        int playerX = game.getPlayerX();
-        int playerY = game.getPlayerY();
-        int playerFacing = game.getPlayerFacing();
-        int currentLevel = game.getCurrentLevel();
-
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
-                int x = j * CELL_SIZE;
-                int y = i * CELL_SIZE;
+        int playerX = session.getPlayerX();
+        int playerY = session.getPlayerY();
+        int playerFacing = session.getPlayerFacing();
+        Theme theme = Theme.of(session.getTheme());
+        FieldOfView fov = session.getFieldOfView();
 
-                if (currentLevel == 1) {
-                    g2d.setPaint(new GradientPaint(x, y, new Color(144, 238, 144), x + CELL_SIZE, y + CELL_SIZE, new Color(100, 200, 100)));
-                    g2d.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-                    g2d.setColor(new Color(80, 160, 80, 100));
-                    g2d.fillOval(x + 10, y + 10, 5, 5);
-                } else if (currentLevel == 2) {
-                    g2d.setPaint(new GradientPaint(x, y, new Color(50, 150, 50), x + CELL_SIZE, y + CELL_SIZE, new Color(30, 100, 30)));
-                    g2d.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-                    g2d.setColor(new Color(100, 80, 60, 100));
-                    g2d.fillRect(x + 15, y + 15, 5, 5);
-                } else {
-                    g2d.setPaint(new GradientPaint(x, y, new Color(0, 50, 100), x + CELL_SIZE, y + CELL_SIZE, new Color(0, 20, 50)));
-                    g2d.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-                    g2d.setColor(new Color(255, 255, 255, 100));
-                    g2d.fillOval(x + 20, y + 20, 3, 3);
+        // From here on everything is drawn in world pixels
+        g2d.translate(-camera.getX(), -camera.getY());
+        Rectangle clip = clipBounds;
+        clip.setBounds(camera.getX(), camera.getY(), getWidth(), getHeight());
+        g2d.getClipBounds(clip);   // left as the whole view when there is no clip
+
+        /* ---------- STATIC CHUNKS under the clip ---------- */
+        int span = chunks.getPixels();
+        int chunkRows = (ROWS + ChunkCache.CHUNK - 1) / ChunkCache.CHUNK;
+        int chunkCols = (COLS + ChunkCache.CHUNK - 1) / ChunkCache.CHUNK;
+        int crTo = Math.min(chunkRows - 1, (clip.y + clip.height) / span);
+        int ccTo = Math.min(chunkCols - 1, (clip.x + clip.width) / span);
+        for (int cr = Math.max(0, clip.y / span); cr <= crTo; cr++) {
+            for (int cc = Math.max(0, clip.x / span); cc <= ccTo; cc++) {
+                if (!fog) {
+                    g2d.drawImage(chunks.get(cr, cc).image, cc * span, cr * span, null);
+                } else if (fov.exploredInChunk(cr, cc) > 0) {
+                    drawExploredCells(g2d, fov, cr, cc, clip, CELL_SIZE);
                 }
+            }
+        }
 
-                char cell = maze[i][j];
-                if (cell == '#' || cell == 'W') {
-                    boolean isBuilding = currentLevel == 1 && (i + j) % 2 == 0;
-                    drawWall(g2d, x, y, cell == 'W' ? false : isBuilding, currentLevel);
-                } else if (cell == 'T') {
-                    drawDecoration(g2d, x, y, currentLevel);
-                } else if (cell == 'A' || cell == 'S' || cell == 'C') {
-                    if (!game.hasObjectiveItem() && Math.abs(playerX - i) <= 2 && Math.abs(playerY - j) <= 2) {
-                        g2d.setColor(new Color(1.0f, 1.0f, 0.0f, glowAlpha * 0.5f));
-                        g2d.fillOval(x - 20, y - 20, CELL_SIZE + 40, CELL_SIZE + 40);
-                        g2d.setColor(new Color(1.0f, 1.0f, 0.0f, glowAlpha));
-                        g2d.fillOval(x - 15, y - 15, CELL_SIZE + 30, CELL_SIZE + 30);
+        /* ---------- DYNAMIC ENTITIES (drawn over the cached chunks) ---------- */
+        // Only visit cells inside the repaint clip, plus one ring for sprites that overdraw their cell
+        int rowFrom = Math.max(0, clip.y / CELL_SIZE - 1);
+        int rowTo = Math.min(ROWS - 1, (clip.y + clip.height) / CELL_SIZE + 1);
+        int colFrom = Math.max(0, clip.x / CELL_SIZE - 1);
+        int colTo = Math.min(COLS - 1, (clip.x + clip.width) / CELL_SIZE + 1);
+        for (int i = rowFrom; i <= rowTo; i++) {
+            for (int j = colFrom; j <= colTo; j++) {
+                if (fog && !fov.isExplored(i, j)) continue;
+                char cell = maze.get(i, j);
+                boolean item = MazeData.isItem(cell);
+                if (!item && cell != 'E' && cell != 'G' && cell != 'P') continue;
+                int x = j * CELL_SIZE;
+                int y = i * CELL_SIZE;
+
+                int pad = Theme.SPRITE_PAD;
+                if (item) {
+                    if (!session.hasObjectiveItem() && Math.abs(playerX - i) <= 2 && Math.abs(playerY - j) <= 2) {
+                        g2d.drawImage(Theme.HALO[glowLevel], x - Theme.HALO_PAD, y - Theme.HALO_PAD, null);
                         drawParticles(g2d, x, y);
                     }
-                    drawObjectiveItem(g2d, x, y, cell);
+                    g2d.drawImage(Theme.item(cell), x - pad, y - pad, null);
                 } else if (cell == 'E') {
-                    drawExit(g2d, x, y, glowAlpha);
+                    g2d.drawImage(Theme.EXIT[glowLevel], x - pad, y - pad, null);
                 } else if (cell == 'G') {
-                    drawPerson(g2d, x, y, Color.MAGENTA, 2, true, currentLevel);
-                } else if (cell == 'P') {
-                    drawPerson(g2d, x, y, Color.BLUE, playerFacing, false, currentLevel);
-                } else if (cell == 'M' || cell == 'B') {
-                    if (cell == 'M') {
-                        drawPerson(g2d, x, y, currentLevel == 1 ? Color.RED : currentLevel == 2 ? new Color(0,100,0) : new Color(0,150,255), 2, false, currentLevel);
-                    } else {
-                        drawPerson(g2d, x, y, new Color(120, 0, 120), 2, false, currentLevel);
-                        g2d.setColor(new Color(200, 0, 200, 50));
-                        g2d.fillOval(x + 5, y - 5, CELL_SIZE - 10, CELL_SIZE + 10);
-                    }
+                    g2d.drawImage(Theme.SAGE, x - pad, y - pad, null);
+                } else {
+                    g2d.drawImage(Theme.PLAYER[playerFacing & 3], x - pad, y - pad, null);
+                    // the path stripe sits on top of whoever is standing on it
+                    if ((i + j) % 3 == 0) g2d.drawImage(theme.stripeSprite, x - pad, y - pad, null);
                 }
+            }
+        }
 
-                if (cell == '.' || cell == 'T' || cell == 'P' || cell == 'M' || cell == 'B') {
-                    if ((i + j) % 3 == 0) {
-                        g2d.setColor(currentLevel == 1 ? new Color(169, 169, 169) : new Color(139, 69, 19));
-                        g2d.fillRect(x + 10, y + 20, CELL_SIZE - 20, 10);
-                    }
+        /* ---------- MONSTERS, interpolated between their last two cells ---------- */
+        MonsterManager monsters = session.getMonsterManager();
+        int bucket = MonsterManager.BUCKET_SIZE;
+        for (int br = rowFrom / bucket; br <= rowTo / bucket; br++) {
+            for (int bc = colFrom / bucket; bc <= colTo / bucket; bc++) {
+                for (int e = monsters.firstInBucket(br, bc); e >= 0; e = monsters.nextInBucket(e)) {
+                    if (!monsters.isAlive(e)) continue;
+                    if (fog && !fov.isVisible(monsters.getX(e), monsters.getY(e))) continue;
+                    int x = lerp(monsters.getPrevY(e), monsters.getY(e), CELL_SIZE);
+                    int y = lerp(monsters.getPrevX(e), monsters.getX(e), CELL_SIZE);
+                    BufferedImage[] sprites = monsters.getType(e) == MonsterManager.TYPE_BOSS ? theme.boss : theme.monster;
+                    g2d.drawImage(sprites[monsters.getFacing(e) & 3], x - Theme.SPRITE_PAD, y - Theme.SPRITE_PAD, null);
+                }
+            }
+        }
+
+        if (fog) {
+            for (int cr = Math.max(0, clip.y / span); cr <= crTo; cr++) {
+                for (int cc = Math.max(0, clip.x / span); cc <= ccTo; cc++) {
+                    if (fov.exploredInChunk(cr, cc) > 0) shadeOutOfSight(g2d, fov, cr, cc, clip, CELL_SIZE);
                 }
             }
         }
 
         if (storyManager.hasActiveSpeech()) {
-            storyManager.drawSpeechBubble(g2d, playerX, playerY, game.getCellSize());
+            storyManager.drawSpeechBubble(g2d, playerX, playerY, CELL_SIZE);
         }
+        g2d.translate(camera.getX(), camera.getY());
 
         if (paused) {
-            g.setColor(new Color(0, 0, 0, 180));
+            Rectangle view = getVisibleRect();
+            g.setColor(Theme.PAUSE_SHADE);
             g.fillRect(0, 0, getWidth(), getHeight());
             g.setColor(Color.WHITE);
-            g.setFont(new Font("Serif", Font.BOLD, 48));
+            g.setFont(Theme.PAUSE_TITLE_FONT);
             String txt = "PAUSED";
             FontMetrics fm = g.getFontMetrics();
-            int tx = (getWidth() - fm.stringWidth(txt)) / 2;
-            int ty = (getHeight() - fm.getHeight()) / 2 + fm.getAscent();
+            int tx = view.x + (view.width - fm.stringWidth(txt)) / 2;
+            int ty = view.y + (view.height - fm.getHeight()) / 2 + fm.getAscent();
             g.drawString(txt, tx, ty);
-            g.setFont(new Font("Serif", Font.PLAIN, 24));
+            g.setFont(Theme.PAUSE_HINT_FONT);
             String hint = "Press P to resume";
             fm = g.getFontMetrics();
-            tx = (getWidth() - fm.stringWidth(hint)) / 2;
+            tx = view.x + (view.width - fm.stringWidth(hint)) / 2;
             ty += 40;
             g.drawString(hint, tx, ty);
         }
     }
 
-    private void drawWall(Graphics2D g, int x, int y, boolean isBuilding, int currentLevel) {
+    /* --------------------------------------------------------------
+       FOG OF WAR – only explored cells are painted at all; the static
+       layer is copied out of the chunk image in runs along each row and
+       the cells out of sight are shaded afterwards. Chunks with nothing
+       explored are skipped by the callers.
+       -------------------------------------------------------------- */
+    // A fully explored chunk is one blit, otherwise one blit per run of explored cells
+    private void drawExploredCells(Graphics2D g2d, FieldOfView fov, int cr, int cc, Rectangle clip, int cellSize) {
+        Image image = chunks.get(cr, cc).image;
+        int top = cr * ChunkCache.CHUNK, left = cc * ChunkCache.CHUNK;
+        int rowEnd = Math.min(session.getRows(), top + ChunkCache.CHUNK);
+        int colEnd = Math.min(session.getCols(), left + ChunkCache.CHUNK);
+        if (fov.exploredInChunk(cr, cc) == (rowEnd - top) * (colEnd - left)) {
+            g2d.drawImage(image, left * cellSize, top * cellSize, null);
+            return;
+        }
+        int rowFrom = Math.max(top, clip.y / cellSize), rowTo = Math.min(rowEnd, (clip.y + clip.height) / cellSize + 1);
+        int colFrom = Math.max(left, clip.x / cellSize), colTo = Math.min(colEnd, (clip.x + clip.width) / cellSize + 1);
+        for (int i = rowFrom; i < rowTo; i++) {
+            for (int j = colFrom; j < colTo; j++) {
+                if (!fov.isExplored(i, j)) continue;
+                int run = j;
+                while (j + 1 < colTo && fov.isExplored(i, j + 1)) j++;
+                int sx = (run - left) * cellSize, sy = (i - top) * cellSize, w = (j + 1 - run) * cellSize;
+                g2d.drawImage(image, run * cellSize, i * cellSize, run * cellSize + w, (i + 1) * cellSize,
+                              sx, sy, sx + w, sy + cellSize, null);
+            }
+        }
+    }
+
+    // Dims the explored cells of one chunk that the player cannot see right now, a row run per fill
+    private void shadeOutOfSight(Graphics2D g2d, FieldOfView fov, int cr, int cc, Rectangle clip, int cellSize) {
+        int top = cr * ChunkCache.CHUNK, left = cc * ChunkCache.CHUNK;
+        int rowFrom = Math.max(top, clip.y / cellSize);
+        int rowTo = Math.min(Math.min(session.getRows(), top + ChunkCache.CHUNK), (clip.y + clip.height) / cellSize + 1);
+        int colFrom = Math.max(left, clip.x / cellSize);
+        int colTo = Math.min(Math.min(session.getCols(), left + ChunkCache.CHUNK), (clip.x + clip.width) / cellSize + 1);
+        g2d.setColor(Theme.FOG);
+        for (int i = rowFrom; i < rowTo; i++) {
+            for (int j = colFrom; j < colTo; j++) {
+                if (!isShaded(fov, i, j)) continue;
+                int run = j;
+                while (j + 1 < colTo && isShaded(fov, i, j + 1)) j++;
+                g2d.fillRect(run * cellSize, i * cellSize, (j + 1 - run) * cellSize, cellSize);
+            }
+        }
+    }
+
+    private static boolean isShaded(FieldOfView fov, int row, int col) {
+        return !fov.isVisible(row, col) && fov.isExplored(row, col);
+    }
+
+    /* --------------------------------------------------------------
+       DIRTY REGIONS – callers mark what changed, then flush once
+       -------------------------------------------------------------- */
+    public void markCellDirty(int row, int col) {
+        dirtyRegions.markCell(row, col, BOSS_AURA_PAD);
+    }
+
+    // Glowing cells are collected per chunk when it renders; only chunks in view matter
+    public void markGlowCellsDirty() {
+        int COLS = session.getCols();
+        int span = chunks.getPixels();
+        for (int cr = camera.getY() / span; cr <= (camera.getY() + getHeight()) / span; cr++) {
+            for (int cc = camera.getX() / span; cc <= (camera.getX() + getWidth()) / span; cc++) {
+                ChunkCache.Chunk chunk = chunks.peek(cr, cc);
+                if (chunk == null) continue;
+                for (int k = 0; k < chunk.glowCellCount; k++) {
+                    dirtyRegions.markCell(chunk.glowCells[k] / COLS, chunk.glowCells[k] % COLS, GLOW_PAD);
+                }
+            }
+        }
+    }
+
+    public void markSpeechBubbleDirty(int playerX, int playerY) {
+        Rectangle r = storyManager.getSpeechBubbleBounds(playerX, playerY, GraphicalMazeGameEnhanced.CELL_SIZE, bubbleBounds);
+        dirtyRegions.markRect(r.x, r.y, r.width + 1, r.height + 1);
+    }
+
+    // Monsters that moved in the last step keep sliding until the next one; repaint their path
+    public void markMovingEntitiesDirty() {
+        if (session.getMaze() == null) return;
         int CELL_SIZE = GraphicalMazeGameEnhanced.CELL_SIZE;
-        if (currentLevel == 2 || !isBuilding) {
-            g.setPaint(new GradientPaint(x, y, new Color(60, 160, 60), x + CELL_SIZE, y + CELL_SIZE, new Color(30, 100, 30)));
-            g.fillOval(x, y, CELL_SIZE, CELL_SIZE);
-            g.setColor(new Color(0, 120, 0, 150));
-            g.fillOval(x + 10, y + 10, CELL_SIZE - 20, CELL_SIZE - 20);
-            g.setColor(new Color(0, 80, 0, 100));
-            g.drawLine(x + 15, y + 15, x + 35, y + 35);
-        } else if (currentLevel == 3) {
-            g.setPaint(new GradientPaint(x, y, new Color(120, 120, 180), x + CELL_SIZE, y + CELL_SIZE, new Color(70, 70, 120)));
-            g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-            g.setColor(new Color(200, 200, 255, 150));
-            g.fillOval(x + 5, y + 5, 10, 10);
-            g.fillOval(x + 35, y + 35, 10, 10);
-            g.setColor(new Color(255, 255, 255, 50));
-            g.drawRect(x + 2, y + 2, CELL_SIZE - 4, CELL_SIZE - 4);
+        int bucketPixels = MonsterManager.BUCKET_SIZE * CELL_SIZE;
+        MonsterManager monsters = session.getMonsterManager();
+        // one cell of slack: an entity just outside the view may be sliding in from it
+        int top = Math.max(0, camera.getY() - CELL_SIZE), left = Math.max(0, camera.getX() - CELL_SIZE);
+        for (int br = top / bucketPixels; br <= (camera.getY() + getHeight() + CELL_SIZE) / bucketPixels; br++) {
+            for (int bc = left / bucketPixels; bc <= (camera.getX() + getWidth() + CELL_SIZE) / bucketPixels; bc++) {
+                for (int e = monsters.firstInBucket(br, bc); e >= 0; e = monsters.nextInBucket(e)) {
+                    int px = monsters.getPrevX(e), py = monsters.getPrevY(e);
+                    if (!monsters.isAlive(e) || (px == monsters.getX(e) && py == monsters.getY(e))) continue;
+                    dirtyRegions.markCell(px, py, BOSS_AURA_PAD);
+                    dirtyRegions.markCell(monsters.getX(e), monsters.getY(e), BOSS_AURA_PAD);
+                }
+            }
+        }
+    }
+
+    public void markAllDirty() {
+        dirtyRegions.markAll();
+    }
+
+    public void flushDirtyRegions() {
+        if (!dirtyRegions.isEmpty()) dirtyRegions.flush(this, camera.getX(), camera.getY());
+    }
+
+    /* --------------------------------------------------------------
+       CAMERA
+       -------------------------------------------------------------- */
+    // Call after the player moved; scrolling repaints the whole view
+    public void followPlayer() {
+        if (session.getMaze() == null) return;
+        int px = session.getPlayerX(), py = session.getPlayerY();
+        if (camera.follow(px, py, session.getRows(), session.getCols())) {
+            dirtyRegions.markAll();
+        }
+        if (fog && (px != fogX || py != fogY)) {
+            // the view only changes within RADIUS of the old and the new player cell
+            markFogWindow(fogX, fogY);
+            markFogWindow(px, py);
+        }
+        fogX = px;
+        fogY = py;
+    }
+
+    private void markFogWindow(int row, int col) {
+        int cell = GraphicalMazeGameEnhanced.CELL_SIZE, radius = FieldOfView.RADIUS;
+        if (row < 0) return;
+        dirtyRegions.markRect((col - radius) * cell - BOSS_AURA_PAD, (row - radius) * cell - BOSS_AURA_PAD,
+                              (2 * radius + 1) * cell + 2 * BOSS_AURA_PAD, (2 * radius + 1) * cell + 2 * BOSS_AURA_PAD);
+    }
+
+    /* --------------------------------------------------------------
+       STATIC CHUNKS – floor, walls, decorations and path stripes rarely
+       change within a level, so each chunk is rendered once into a
+       cached image and blitted every frame. The few changes (an item
+       picked up, a decoration walked over) come in through
+       invalidateCell().
+       -------------------------------------------------------------- */
+    // New level: drop every chunk and jump the camera to the player
+    public void resetView() {
+        chunks.clear();
+        if (session.getMaze() != null) {
+            camera.centerOn(session.getPlayerX(), session.getPlayerY(), session.getRows(), session.getCols());
+        }
+        fogX = session.getPlayerX();
+        fogY = session.getPlayerY();
+        dirtyRegions.markAll();
+    }
+
+    // A cell's static look changed (an item was picked up or a decoration trampled)
+    public void invalidateCell(int row, int col) {
+        chunks.invalidateCell(row, col);
+    }
+
+    private void renderChunk(Graphics2D g2d, int chunkRow, int chunkCol, ChunkCache.Chunk chunk) {
+        MazeGrid maze = session.getMaze();
+        int COLS = session.getCols();
+        int CELL_SIZE = GraphicalMazeGameEnhanced.CELL_SIZE;
+        Theme theme = Theme.of(session.getTheme());
+        int rowFrom = chunkRow * ChunkCache.CHUNK, colFrom = chunkCol * ChunkCache.CHUNK;
+        int rowTo = Math.min(session.getRows(), rowFrom + ChunkCache.CHUNK);
+        int colTo = Math.min(COLS, colFrom + ChunkCache.CHUNK);
+
+        g2d.translate(-colFrom * CELL_SIZE, -rowFrom * CELL_SIZE);
+        for (int i = rowFrom; i < rowTo; i++) {
+            for (int j = colFrom; j < colTo; j++) {
+                int x = j * CELL_SIZE;
+                int y = i * CELL_SIZE;
+                g2d.translate(x, y);
+                drawFloor(g2d, theme);
+
+                char cell = maze.get(i, j);
+                if (cell == '#' || cell == 'W') {
+                    drawWall(g2d, cell == '#' && theme.buildings && (i + j) % 2 == 0);
+                } else if (cell == 'T') {
+                    drawDecoration(g2d, theme);
+                } else if (MazeData.isItem(cell) || cell == 'E') {
+                    chunk.addGlowCell(i * COLS + j);
+                }
+
+                if (cell == '.' || cell == 'T' || cell == 'P' || cell == 'M' || cell == 'B') {
+                    drawStripe(g2d, theme, i, j);
+                }
+                g2d.translate(-x, -y);
+            }
+        }
+    }
+
+    // Pixel position between two cells at the current monster progress
+    private int lerp(int from, int to, int cellSize) {
+        return (int) Math.round((from + (to - from) * monsterProgress) * cellSize);
+    }
+
+    /* --------------------------------------------------------------
+       STATIC TILES – each draws one cell with its top-left at (0,0);
+       renderChunk translates to the cell first. Everything drawn per
+       frame is a pre-rendered Theme sprite instead.
+       -------------------------------------------------------------- */
+    private void drawFloor(Graphics2D g2d, Theme theme) {
+        int CELL_SIZE = GraphicalMazeGameEnhanced.CELL_SIZE;
+        g2d.setPaint(theme.floor);
+        g2d.fillRect(0, 0, CELL_SIZE, CELL_SIZE);
+        g2d.setColor(theme.floorSpeck);
+        if (theme.roundSpeck) g2d.fillOval(theme.speckAt, theme.speckAt, theme.speckSize, theme.speckSize);
+        else g2d.fillRect(theme.speckAt, theme.speckAt, theme.speckSize, theme.speckSize);
+    }
+
+    private void drawStripe(Graphics2D g2d, Theme theme, int i, int j) {
+        if ((i + j) % 3 != 0) return;
+        int CELL_SIZE = GraphicalMazeGameEnhanced.CELL_SIZE;
+        g2d.setColor(theme.stripe);
+        g2d.fillRect(10, 20, CELL_SIZE - 20, 10);
+    }
+
+    private void drawWall(Graphics2D g, boolean isBuilding) {
+        int CELL_SIZE = GraphicalMazeGameEnhanced.CELL_SIZE;
+        if (!isBuilding) {
+            g.setPaint(Theme.HEDGE);
+            g.fillOval(0, 0, CELL_SIZE, CELL_SIZE);
+            g.setColor(Theme.HEDGE_LEAVES);
+            g.fillOval(10, 10, CELL_SIZE - 20, CELL_SIZE - 20);
+            g.setColor(Theme.HEDGE_VEIN);
+            g.drawLine(15, 15, 35, 35);
         } else {
-            g.setPaint(new GradientPaint(x, y, new Color(139, 69, 19), x + CELL_SIZE, y + CELL_SIZE, new Color(100, 50, 10)));
-            g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
-            g.setColor(new Color(80, 40, 0));
-            g.drawLine(x + 2, y + 2, x + CELL_SIZE - 2, y + 2);
-            g.drawLine(x + 2, y + 2, x + 2, y + CELL_SIZE - 2);
-            g.setColor(new Color(255, 215, 0)); // Gold
-            g.fillRect(x + 10, y + 10, 10, 10);
-            g.fillRect(x + 30, y + 30, 10, 10);
-        }
-    }
-
-    private void drawDecoration(Graphics2D g, int x, int y, int currentLevel) {
-        if (currentLevel == 3) {
-            g.setColor(new Color(0, 200, 255, 150));
-            g.fillOval(x + 15, y + 15, 20, 20);
-            g.setColor(new Color(255, 255, 255, 100));
-            g.fillOval(x + 20, y + 20, 10, 10);
+            g.setPaint(Theme.BRICK);
+            g.fillRect(0, 0, CELL_SIZE, CELL_SIZE);
+            g.setColor(Theme.BRICK_MORTAR);
+            g.drawLine(2, 2, CELL_SIZE - 2, 2);
+            g.drawLine(2, 2, 2, CELL_SIZE - 2);
+            g.setColor(Theme.GOLD);
+            g.fillRect(10, 10, 10, 10);
+            g.fillRect(30, 30, 10, 10);
+        }
+    }
+
+    private void drawDecoration(Graphics2D g, Theme theme) {
+        if (theme.celestial) {
+            g.setColor(Theme.ORB);
+            g.fillOval(15, 15, 20, 20);
+            g.setColor(Theme.ORB_CORE);
+            g.fillOval(20, 20, 10, 10);
         } else {
-            g.setColor(new Color(139, 69, 19));
-            g.fillRect(x + 20, y + 30, 10, 20);
+            g.setColor(Theme.TRUNK);
+            g.fillRect(20, 30, 10, 20);
             g.setColor(Color.GREEN);
-            g.fillOval(x + 5, y + 5, 40, 40);
-        }
-    }
-
-    private void drawObjectiveItem(Graphics2D g, int x, int y, char type) {
-        g.setColor(type == 'A' ? Color.YELLOW : type == 'S' ? Color.WHITE : new Color(255, 200, 0));
-        int[] xp = {x + 25, x + 10, x + 40};
-        int[] yp = {y + 10, y + 40, y + 40};
-        g.fillPolygon(xp, yp, 3);
-    }
-
-    private void drawExit(Graphics2D g, int x, int y, float glowAlpha) {
-        g.setPaint(new GradientPaint(x, y, new Color(0, 100, 0), x + 40, y + 40, new Color(0, 150, 0)));
-        g.fillRect(x + 10, y + 10, 30, 40);
-        g.setColor(new Color(255, 215, 0));
-        g.drawRect(x + 8, y + 8, 34, 44);
-        g.setColor(new Color(255, 255, 0, (int)(glowAlpha * 255)));
-        g.fillOval(x + 20, y + 30, 5, 5);
-    }
-
-    private void drawPerson(Graphics2D g, int x, int y, Color color, int facing, boolean isSage, int currentLevel) {
-        g.setColor(color);
-        g.fillOval(x + 15, y + 5, 20, 20);
-        g.setColor(new Color(255, 220, 200));
-        g.fillOval(x + 18, y + 8, 14, 14);
-        g.setColor(color);
-        g.fillRect(x + 22, y + 25, 6, 15);
-        g.drawLine(x + 25, y + 28, x + 15, y + 23);
-        g.drawLine(x + 25, y + 28, x + 35, y + 23);
-        g.drawLine(x + 24, y + 40, x + 20, y + 45);
-        g.drawLine(x + 26, y + 40, x + 30, y + 45);
-        if (isSage) {
-            g.setColor(new Color(200, 0, 200, 150));
-            g.fillPolygon(new int[]{x + 15, x + 25, x + 35}, new int[]{y + 25, y + 40, y + 25}, 3);
-            g.setColor(Color.GRAY);
-            g.fillRect(x + 23, y + 10, 4, 10);
-        } else {
-            g.setColor(new Color(150, 150, 150, 150));
-            g.fillRect(x + 20, y + 25, 10, 10);
-            g.setColor(Color.BLACK);
-            g.fillRect(x + 22, y + 30, 6, 2);
-        }
-        if (currentLevel == 3 && !isSage && color != Color.BLUE) {
-            g.setColor(new Color(0, 255, 255, 100));
-            g.fillOval(x + 10, y, 30, 30);
-            g.setColor(Color.WHITE);
-            g.fillOval(x + 20, y + 10, 4, 4);
-            g.fillOval(x + 26, y + 10, 4, 4);
-        }
-        g.setColor(Color.BLACK);
-        switch (facing) {
-            case 0: g.drawLine(x + 25, y + 15, x + 25, y + 5); break;
-            case 1: g.drawLine(x + 25, y + 15, x + 35, y + 15); break;
-            case 2: g.drawLine(x + 25, y + 15, x + 25, y + 25); break;
-            case 3: g.drawLine(x + 25, y + 15, x + 15, y + 15); break;
+            g.fillOval(5, 5, 40, 40);
         }
     }
 
     private void drawParticles(Graphics2D g, int x, int y) {
-        g.setColor(new Color(1.0f, 1.0f, 0.0f, 0.5f));
+        // Cosmetic jitter hashed from the cell and glow step: no generator state, same frame every repaint
+        long key = GameRandom.mix(((long) x << 32 | (y & 0xFFFFFFFFL)) + glowStep);
         for (int i = 0; i < 8; i++) {
-            int px = x + 25 + random.nextInt(20) - 10;
-            int py = y + 25 + random.nextInt(20) - 10;
-            g.fillOval(px, py, 5, 5);
+            long r = GameRandom.mix(key + i);
+            int px = x + 25 + (int) ((r & 0xFFFF) % 20) - 10;
+            int py = y + 25 + (int) ((r >>> 16 & 0xFFFF) % 20) - 10;
+            g.drawImage(Theme.SPARK, px, py, null);
         }
     }
-}
\ No newline at end of file
+}
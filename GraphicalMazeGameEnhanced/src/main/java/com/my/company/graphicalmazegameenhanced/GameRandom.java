@@ -0,0 +1,37 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/GameRandom.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.util.SplittableRandom;
+
+/* --------------------------------------------------------------
+   Every random number in a session comes from its one 64-bit seed.
+   Each consumer draws from its own stream, derived from the seed and
+   a fixed stream id, so adding draws in one place never shifts the
+   numbers seen by another, and a session seed plus the player's
+   inputs reproduce a run exactly.
+   -------------------------------------------------------------- */
+public final class GameRandom {
+    public static final long MONSTERS = 1;      // counter-based per (tick, entity), see MonsterManager
+    public static final long DECORATIONS = 2;   // one stream per level
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private GameRandom() {}
+
+    // Seed of stream 'id' under 'seed'; streams of one seed are independent
+    public static long stream(long seed, long id) {
+        return mix(seed + (id + 1) * GOLDEN_GAMMA);
+    }
+
+    // Generator for stream 'id', sub-stream 'key' (e.g. the level number)
+    public static SplittableRandom generator(long seed, long id, long key) {
+        return new SplittableRandom(stream(stream(seed, id), key));
+    }
+
+    // SplitMix64 finalizer: a counter-based random draw, no shared generator state
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,47 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/GameScheduler.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/* --------------------------------------------------------------
+   One daemon thread for the game's wall-clock timed effects (speech
+   bubble expiry, future buffs). The thread is created on first use
+   and reused forever after, and cancelled tasks are dropped from the
+   queue right away. Per-frame work such as the glow pulse belongs to
+   GameLoop, not here.
+   -------------------------------------------------------------- */
+public final class GameScheduler {
+    private final ScheduledThreadPoolExecutor executor;
+
+    // Cancellable reference to a scheduled effect
+    public static final class Handle {
+        private final ScheduledFuture<?> future;
+
+        private Handle(ScheduledFuture<?> future) {
+            this.future = future;
+        }
+
+        public void cancel() { future.cancel(false); }
+        public boolean isDone() { return future.isDone(); }
+    }
+
+    public GameScheduler() {
+        executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "game-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    // Runs 'task' once on the scheduler thread; keep it short and thread-safe
+    public Handle after(long delayMs, Runnable task) {
+        return new Handle(executor.schedule(task, delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,398 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/GameSession.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/* --------------------------------------------------------------
+   Headless game core: owns the maze, the player, the monsters and
+   level progression. It never touches AWT/Swing – views drive it
+   through step()/tick() and react to GameListener events.
+   -------------------------------------------------------------- */
+public class GameSession {
+    // Endurance mode: endless generated levels that grow with depth
+    public static final int ENDURANCE_BASE_SIZE = 15;
+    public static final int ENDURANCE_GROWTH = 6;
+    public static final int ENDURANCE_MAX_SIZE = 1001;
+
+    // Fixed simulation rate; monsters step every MONSTER_STEP_MS of game time whatever the rate
+    public static final int DEFAULT_TICKS_PER_SECOND = 20;
+    public static final int MONSTER_STEP_MS = 300;
+
+    private static final GameListener NO_LISTENER = new GameListener() {};
+
+    private final MonsterManager monsterManager;
+    private final FieldOfView fieldOfView = new FieldOfView();
+    private final int ticksPerSecond;
+    private final int monsterStepTicks;
+    private GameListener listener = NO_LISTENER;
+
+    private long seed = 0;   // session seed: every random stream derives from it (see GameRandom)
+    private LevelPack levelPack = MazeData.BUILT_IN;
+    private LevelPack.Level levelInfo;   // title, item and sage lines of the current level
+    private int currentLevel = 1;
+    private MazeGrid maze;
+    private int playerX = 1, playerY = 1, playerFacing = 2;
+    private int sageX = 4, sageY = 3;
+
+    private boolean endurance = false;
+    private long enduranceSeed = 0;
+    private int enduranceDepth = 0;
+
+    private boolean hasObjectiveItem = false;
+    private int sageInteractionStage = 0;
+    private String currentObjective = "Find the Sage for guidance on the curse.";
+    private boolean over = false, won = false;
+    private long tickCount = 0;
+
+    public GameSession() {
+        this(DEFAULT_TICKS_PER_SECOND);
+    }
+
+    public GameSession(int ticksPerSecond) {
+        this.ticksPerSecond = ticksPerSecond;
+        this.monsterStepTicks = Math.max(1, Math.round(MONSTER_STEP_MS * ticksPerSecond / 1000f));
+        monsterManager = new MonsterManager(this);
+    }
+
+    // Same seed + same inputs at the same ticks = same run
+    public void setSeed(long seed) {
+        this.seed = seed;
+        monsterManager.setSeed(GameRandom.stream(seed, GameRandom.MONSTERS));
+    }
+
+    public void setListener(GameListener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+    }
+
+    // The campaign played by startCampaign()/loadLevel(); the last level in it is the final one
+    public void setLevelPack(LevelPack pack) {
+        levelPack = pack;
+    }
+
+    /* --------------------------------------------------------------
+       SIMULATION
+       -------------------------------------------------------------- */
+    // Applies one player command; no-op once the game is over or won
+    public void step(GameInput input) {
+        if (over || won || maze == null) return;
+        if (input == GameInput.INTERACT) {
+            interactWithSage();
+        } else {
+            movePlayer(playerX + input.dx, playerY + input.dy, input.facing);
+        }
+    }
+
+    // Advances the world by one fixed tick (1/ticksPerSecond s); monsters step every monsterStepTicks
+    public void tick() {
+        if (over || won || maze == null) return;
+        PerfEvents.Tick event = new PerfEvents.Tick();
+        event.begin();
+        tickCount++;
+        boolean monsterStep = tickCount % monsterStepTicks == 0;
+        if (monsterStep) {
+            monsterManager.moveMonsters();
+            checkStoryTriggers();
+        }
+        if (isPlayerOnMonster()) loseGame();
+        if (event.shouldCommit()) {
+            event.tick = tickCount;
+            event.monsterStep = monsterStep;
+            event.commit();
+        }
+    }
+
+    // How far monsters are between their previous and current cells, 0..1, 'tickAlpha' into the current tick
+    public double getMonsterStepProgress(double tickAlpha) {
+        return Math.min(1.0, (tickCount % monsterStepTicks + tickAlpha) / monsterStepTicks);
+    }
+
+    private void movePlayer(int newX, int newY, int newFacing) {
+        if (!isValidMove(newX, newY)) return;
+        char target = maze.get(newX, newY);
+
+        /* ---------- ITEM PICK-UP ---------- */
+        if (target == getRequiredItem()) {
+            hasObjectiveItem = true;
+            maze.set(newX, newY, '.');
+            listener.onLog("You acquired the " + levelInfo.itemName() + "!\n");
+            currentObjective = "Find the exit to win!";
+            listener.onItemCollected(newX, newY);
+        }
+
+        /* ---------- EXIT – WIN ON THE PACK'S LAST LEVEL ---------- */
+        if (target == 'E') {
+            if (!hasObjectiveItem) {
+                listener.onLog("Exit is sealed without the item.\n");
+                listener.onExitLocked();
+                return;
+            }
+
+            if (endurance) {
+                loadEnduranceLevel(enduranceDepth + 1);
+            } else if (currentLevel < levelPack.size()) {
+                loadLevel(currentLevel + 1);
+            } else {
+                won = true;
+                listener.onWin();
+            }
+            return;
+        }
+
+        /* ---------- MONSTERS / TRAPS ---------- */
+        if (monsterManager.isMonsterAt(newX, newY) || MonsterManager.isTrapAt(maze, newX, newY)) {
+            loseGame();
+            return;
+        }
+
+        /* ---------- MOVE PLAYER ---------- */
+        if (maze.get(playerX, playerY) == 'P') maze.set(playerX, playerY, '.');
+        notifyCellChanged(playerX, playerY);
+        playerX = newX; playerY = newY; playerFacing = newFacing;
+        if (target == 'T') notifyStaticTileChanged(playerX, playerY);
+        maze.set(playerX, playerY, 'P');
+        fieldOfView.update(playerX, playerY);
+        notifyCellChanged(playerX, playerY);
+        if (isPlayerOnMonster()) loseGame();
+    }
+
+    /* --------------------------------------------------------------
+       INTERACTION – SAGE ONLY
+       -------------------------------------------------------------- */
+    private void interactWithSage() {
+        if (Math.abs(playerX - sageX) <= 1 && Math.abs(playerY - sageY) <= 1 &&
+            (playerX != sageX || playerY != sageY)) {
+            sageInteractionStage++;
+            String msg = levelInfo.sageLine(sageInteractionStage);
+            listener.onSageSpoke(msg);
+            listener.onLog(msg + "\n");
+            return;
+        }
+        listener.onLog("Nothing to interact with.\n");
+    }
+
+    /* --------------------------------------------------------------
+       LOAD LEVEL – grid and story come from the level pack
+       -------------------------------------------------------------- */
+    public void startCampaign(long seed) {
+        setSeed(seed);
+        loadLevel(1);
+    }
+
+    public void loadLevel(int level) {
+        endurance = false;
+        LevelPack.Level info = levelPack.level(level);
+        beginLevel(level, info, levelPack.grid(level), info.sageX(), info.sageY(), info.title(), info.decorations());
+    }
+
+    // Story for a level number: the campaign's, except in endurance, which reuses the built-in levels' items
+    private LevelPack.Level infoFor(int level) {
+        return infoFor(level, endurance);
+    }
+
+    private LevelPack.Level infoFor(int level, boolean endurance) {
+        LevelPack pack = endurance ? MazeData.BUILT_IN : levelPack;
+        return pack.level(Math.max(1, Math.min(level, pack.size())));
+    }
+
+    /* --------------------------------------------------------------
+       ENDURANCE – generated levels, themes cycle through levels 1-3
+       -------------------------------------------------------------- */
+    public void startEndurance(long seed) {
+        enduranceSeed = seed;
+        setSeed(seed);
+        loadEnduranceLevel(1);
+    }
+
+    private void loadEnduranceLevel(int depth) {
+        endurance = true;
+        enduranceDepth = depth;
+        int theme = enduranceTheme(depth);
+        currentLevel = theme;
+        levelInfo = infoFor(theme);   // getRequiredItem() follows the theme
+        MazeGrid grid = generateEnduranceMaze(enduranceSeed, depth);
+        int[] sage = MazeData.findTile(grid, 'G');
+        beginLevel(theme, levelInfo, grid, sage[0], sage[1], "Endurance Depth " + depth + ": The Shifting Labyrinth",
+                   enduranceDecorations(depth));
+    }
+
+    // How an endurance depth is derived from the run's seed; LevelValidator builds the same levels from these
+    public static int enduranceTheme(int depth) { return (depth - 1) % 3 + 1; }
+    public static int enduranceSize(int depth) { return Math.min(ENDURANCE_MAX_SIZE, ENDURANCE_BASE_SIZE + (depth - 1) * ENDURANCE_GROWTH); }
+    public static int enduranceDecorations(int depth) { return enduranceSize(depth) * enduranceSize(depth) / 40; }
+    public static char enduranceItem(int depth) { return MazeData.BUILT_IN.level(enduranceTheme(depth)).item(); }
+
+    public static MazeGrid generateEnduranceMaze(long enduranceSeed, int depth) {
+        int size = enduranceSize(depth);
+        return MazeGenerator.generate(enduranceSeed + depth * 0x9E3779B97F4A7C15L, size, size, enduranceItem(depth));
+    }
+
+    // The last step of setting up any level: the player start, then decorations drawn from the session
+    // seed under 'key' (the level number, or -depth in endurance). Throws if the decorations don't fit.
+    public static void placeStartAndDecorations(MazeGrid maze, int decorations, long seed, int key) {
+        maze.set(1, 1, 'P');
+        MazeData.addRandomDecorations(maze, decorations, GameRandom.generator(seed, GameRandom.DECORATIONS, key));
+    }
+
+    /* --------------------------------------------------------------
+       MAZE FILES – mapped copy-on-write, never loaded into the heap
+       -------------------------------------------------------------- */
+    public void loadMazeFile(Path file, int theme) throws IOException {
+        endurance = false;
+        MazeGrid grid = MazeGrid.open(file);
+        int[] sage = MazeData.findTile(grid, 'G');
+        beginLevel(theme, infoFor(theme), grid, sage[0], sage[1], "Custom Maze: " + file.getFileName(), 0);
+    }
+
+    private void beginLevel(int level, LevelPack.Level info, MazeGrid grid, int sx, int sy, String title, int decorations) {
+        currentLevel = level;
+        levelInfo = info;
+        hasObjectiveItem = false;
+        sageInteractionStage = 0;
+        over = false;
+        won = false;
+        maze = grid;
+        sageX = sx;
+        sageY = sy;
+        monsterManager.resetMonsters();
+        playerX = 1; playerY = 1; playerFacing = 2;
+
+        currentObjective = info.objective();
+
+        listener.onLog("\n=== " + title + " ===\n" + currentObjective + "\n");
+        placeStartAndDecorations(maze, decorations, seed, endurance ? -enduranceDepth : level);
+        fieldOfView.reset(maze);
+        fieldOfView.update(playerX, playerY);
+        listener.onLevelLoaded(level);
+    }
+
+    /* --------------------------------------------------------------
+       SNAPSHOT / RESTORE – exact state, the level is not regenerated
+       -------------------------------------------------------------- */
+    public GameSnapshot snapshot() {
+        if (maze == null) throw new IllegalStateException("No level loaded");
+        ByteBuffer view = maze.packedView();
+        byte[] packed = new byte[view.remaining()];
+        view.get(packed);
+
+        MonsterManager m = monsterManager;
+        int n = m.getEntityCount();
+        int[] ex = new int[n], ey = new int[n];
+        byte[] facing = new byte[n], type = new byte[n];
+        boolean[] alive = new boolean[n];
+        for (int e = 0; e < n; e++) {
+            ex[e] = m.getX(e);
+            ey[e] = m.getY(e);
+            facing[e] = (byte) m.getFacing(e);
+            type[e] = m.getType(e);
+            alive[e] = m.isAlive(e);
+        }
+
+        return new GameSnapshot(currentLevel, endurance, enduranceSeed, enduranceDepth,
+                                playerX, playerY, playerFacing, sageX, sageY,
+                                hasObjectiveItem, sageInteractionStage, currentObjective,
+                                tickCount, seed, maze.getRows(), maze.getCols(), packed,
+                                n, ex, ey, facing, type, alive, fieldOfView.exploredBits());
+    }
+
+    // Everything that can reject the snapshot runs before the first field changes
+    public void restore(GameSnapshot s) {
+        MazeGrid grid = MazeGrid.fromPacked(s.rows(), s.cols(), s.packedMaze().clone());
+        LevelPack.Level info = infoFor(s.level(), s.endurance());
+        maze = grid;
+        currentLevel = s.level();
+        endurance = s.endurance();
+        enduranceSeed = s.enduranceSeed();
+        enduranceDepth = s.enduranceDepth();
+        levelInfo = info;
+        playerX = s.playerX(); playerY = s.playerY(); playerFacing = s.playerFacing();
+        sageX = s.sageX(); sageY = s.sageY();
+        hasObjectiveItem = s.hasObjectiveItem();
+        sageInteractionStage = s.sageInteractionStage();
+        currentObjective = s.currentObjective();
+        tickCount = s.tickCount();
+        over = false;
+        won = false;
+        setSeed(s.seed());
+        monsterManager.restore(s);
+        fieldOfView.restore(maze, s.explored());
+        fieldOfView.update(playerX, playerY);
+        listener.onLevelLoaded(currentLevel);
+        listener.onRestored();
+    }
+
+    // Digest of the exact session state, stable across runs and JVMs; what a replay is checked against
+    public long stateHash() {
+        return GameRandom.mix(snapshot().stateHash() ^ (over ? 1 : 0) ^ (won ? 2 : 0));
+    }
+
+    private boolean isValidMove(int x, int y) {
+        return maze.inBounds(x, y) && canEnter(maze.get(x, y));
+    }
+
+    // Tiles the player can step onto; traps and the exit are entered too, with consequences
+    public static boolean canEnter(char tile) {
+        return tile != '#' && tile != 'W' && tile != 'G';
+    }
+
+    private void checkStoryTriggers() {
+        char item = getRequiredItem();
+        for (int i = -2; i <= 2; i++) {
+            for (int j = -2; j <= 2; j++) {
+                int tx = playerX + i, ty = playerY + j;
+                if (maze.inBounds(tx, ty) && !hasObjectiveItem && maze.get(tx, ty) == item) {
+                    listener.onItemNearby();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void loseGame() {
+        over = true;
+        listener.onGameOver();
+    }
+
+    public char getRequiredItem() {
+        return levelInfo != null ? levelInfo.item() : '.';
+    }
+
+    /* --------------------------------------------------------------
+       EVENTS RAISED BY COLLABORATORS (MonsterManager, SaveLoadManager)
+       -------------------------------------------------------------- */
+    public void log(String text) { listener.onLog(text); }
+    public void notifyCellChanged(int x, int y) { listener.onCellChanged(x, y); }
+    public void notifyStaticTileChanged(int x, int y) { listener.onStaticTileChanged(x, y); }
+
+    /* --------------------------------------------------------------
+       GETTERS
+       -------------------------------------------------------------- */
+    public boolean isPlayerOnMonster() { return monsterManager.isMonsterAt(playerX, playerY); }
+    public int getCurrentLevel() { return currentLevel; }
+    public int getTheme() { return levelInfo != null ? levelInfo.theme() : 1; }
+    public LevelPack getLevelPack() { return levelPack; }
+    public int getLevelCount() { return levelPack.size(); }
+    public int getRows() { return maze != null ? maze.getRows() : 0; }
+    public int getCols() { return maze != null ? maze.getCols() : 0; }
+    public boolean hasObjectiveItem() { return hasObjectiveItem; }
+    public void setHasObjectiveItem(boolean v) { hasObjectiveItem = v; }
+    public int getSageInteractionStage() { return sageInteractionStage; }
+    public String getCurrentObjective() { return currentObjective; }
+    public int getPlayerX() { return playerX; }
+    public int getPlayerY() { return playerY; }
+    public int getPlayerFacing() { return playerFacing; }
+    public MazeGrid getMaze() { return maze; }
+    public MonsterManager getMonsterManager() { return monsterManager; }
+    public FieldOfView getFieldOfView() { return fieldOfView; }
+    public int getSageX() { return sageX; }
+    public int getSageY() { return sageY; }
+    public boolean isEndurance() { return endurance; }
+    public int getEnduranceDepth() { return enduranceDepth; }
+    public boolean isOver() { return over; }
+    public boolean isWon() { return won; }
+    public long getTickCount() { return tickCount; }
+    public long getSeed() { return seed; }
+    public int getTicksPerSecond() { return ticksPerSecond; }
+    public int getMonsterStepTicks() { return monsterStepTicks; }
+}
@@ -0,0 +1,57 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/GameSnapshot.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.nio.ByteBuffer;
+
+/* --------------------------------------------------------------
+   Immutable copy of everything needed to resume a session exactly:
+   the packed maze, every entity and the story progress. Taken by
+   GameSession.snapshot(), applied by GameSession.restore(), and
+   what SaveLoadManager writes to disk. 'seed' is the session seed
+   that every random stream derives from; 'explored' is the fog-of-war
+   bitset (see FieldOfView), or null when nothing was recorded.
+   -------------------------------------------------------------- */
+public record GameSnapshot(
+        int level,
+        boolean endurance, long enduranceSeed, int enduranceDepth,
+        int playerX, int playerY, int playerFacing,
+        int sageX, int sageY,
+        boolean hasObjectiveItem, int sageInteractionStage, String currentObjective,
+        long tickCount, long seed,
+        int rows, int cols, byte[] packedMaze,
+        int entityCount, int[] entityX, int[] entityY, byte[] entityFacing, byte[] entityType, boolean[] entityAlive,
+        long[] explored) {
+
+    // 64-bit digest of every field; equal snapshots hash equal on any JVM
+    public long stateHash() {
+        long h = fold(0, level);
+        h = fold(h, endurance ? 1 : 0);
+        h = fold(h, enduranceSeed);
+        h = fold(h, enduranceDepth);
+        h = fold(h, ((long) playerX << 32) | (playerY & 0xFFFFFFFFL));
+        h = fold(h, playerFacing);
+        h = fold(h, ((long) sageX << 32) | (sageY & 0xFFFFFFFFL));
+        h = fold(h, hasObjectiveItem ? 1 : 0);
+        h = fold(h, sageInteractionStage);
+        h = fold(h, currentObjective.hashCode());
+        h = fold(h, tickCount);
+        h = fold(h, seed);
+        h = fold(h, ((long) rows << 32) | (cols & 0xFFFFFFFFL));
+        ByteBuffer maze = ByteBuffer.wrap(packedMaze);
+        while (maze.remaining() >= 8) h = fold(h, maze.getLong());
+        while (maze.hasRemaining()) h = fold(h, maze.get());
+        h = fold(h, entityCount);
+        for (int e = 0; e < entityCount; e++) {
+            h = fold(h, ((long) entityX[e] << 32) | (entityY[e] & 0xFFFFFFFFL));
+            h = fold(h, (entityFacing[e] & 0xFF) << 16 | (entityType[e] & 0xFF) << 8 | (entityAlive[e] ? 1 : 0));
+        }
+        if (explored != null) {
+            for (long word : explored) h = fold(h, word);
+        }
+        return h;
+    }
+
+    private static long fold(long h, long value) {
+        return GameRandom.mix(h ^ value) + 0x9E3779B97F4A7C15L;
+    }
+}
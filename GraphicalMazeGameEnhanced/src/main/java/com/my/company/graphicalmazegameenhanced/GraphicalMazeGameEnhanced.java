@@ -4,39 +4,42 @@ package com.mycompany.graphicalmazegameenhanced;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public class GraphicalMazeGameEnhanced extends JFrame implements ActionListener {
 
     public static final int CELL_SIZE = 50;
-    public static final int ROWS = 10;
-    public static final int COLS = 10;
-    private static final int MONSTER_MOVE_DELAY = 300;
-    private static final int GLOW_ANIMATION_SPEED = 80;
+    public static final int VIEW_ROWS = 10;   // visible board area; larger mazes scroll
+    public static final int VIEW_COLS = 10;
+    // Simulation and frame rates, e.g. -Dmaze.tps=30 -Dmaze.fps=120
+    private static final int TARGET_TPS = Integer.getInteger("maze.tps", GameSession.DEFAULT_TICKS_PER_SECOND);
+    private static final int TARGET_FPS = Integer.getInteger("maze.fps", 60);
+    // Runs are recorded for ReplayEngine: to last_run.clrp, or one file per run under -Dmaze.record.dir=...
+    private static final String RECORD_DIR = System.getProperty("maze.record.dir");
+    // Campaign from a level pack instead of the built-in levels, e.g. -Dmaze.levels=campaign.clpk
+    private static final String LEVEL_PACK = System.getProperty("maze.levels");
     private static final Color GOLD = new Color(255, 215, 0);
 
     private enum GameState { MENU, PLAYING, PAUSED, WIN }
     private GameState state = GameState.MENU;
 
     private JPanel menuPanel, winPanel, pausePanel;
-    private JButton startButton, resumeButton, newGameButton, resumePauseButton, quitPauseButton;
+    private JButton startButton, resumeButton, newGameButton, enduranceButton, resumePauseButton, quitPauseButton;
     private JLabel winLabel;
 
-    private int currentLevel = 1;
-    private final int MAX_LEVEL = 3;  // FINAL LEVEL IS NOW 3
-    private char[][] maze;
-    private int playerX = 1, playerY = 1, playerFacing = 2;
-
-    private MonsterManager monsterManager;
+    private GameSession session;
     private StoryManager storyManager;
     private SaveLoadManager saveLoadManager;
     private SoundManager soundManager;
 
-    private boolean hasObjectiveItem = false;
-    private int sageInteractionStage = 0;
-    private String currentObjective = "Find the Sage for guidance on the curse.";
-    private Timer monsterTimer, glowTimer;
-    private float glowAlpha = 0.5f;
-    private boolean glowIncreasing = true;
+    private GameScheduler scheduler;
+    private GameLoop gameLoop;
+    private PerfMonitor perfMonitor;
+    private InputRecorder recorder;
+    private boolean speechWasVisible = false;
 
     private GamePanel gamePanel;
     private JScrollPane logScrollPane;
@@ -61,14 +64,17 @@ public class GraphicalMazeGameEnhanced extends JFrame implements ActionListener
         startButton = createStyledButton("START GAME");
         resumeButton = createStyledButton("RESUME");
         newGameButton = createStyledButton("NEW GAME");
+        enduranceButton = createStyledButton("ENDURANCE");
 
         startButton.addActionListener(this);
         resumeButton.addActionListener(this);
         newGameButton.addActionListener(this);
+        enduranceButton.addActionListener(this);
 
         menuPanel.add(startButton, gbc);
         menuPanel.add(resumeButton, gbc);
         menuPanel.add(newGameButton, gbc);
+        menuPanel.add(enduranceButton, gbc);
 
         /* ---------- WIN PANEL ---------- */
         winPanel = new JPanel();
@@ -111,18 +117,40 @@ public class GraphicalMazeGameEnhanced extends JFrame implements ActionListener
         pausePanel.add(quitPauseButton, pgbc);
 
         /* ---------- GAME COMPONENTS ---------- */
-        monsterManager = new MonsterManager(this);
-        storyManager = new StoryManager();
+        session = new GameSession(TARGET_TPS);
+        scheduler = new GameScheduler();
+        storyManager = new StoryManager(scheduler);
         saveLoadManager = new SaveLoadManager();
         soundManager = new SoundManager();
 
-        gamePanel = new GamePanel(this, monsterManager, storyManager);
+        gamePanel = new GamePanel(session, storyManager);
+        perfMonitor = new PerfMonitor(session);
+        gamePanel.setPerfMonitor(perfMonitor);
+        session.setListener(new SessionEvents());
+        if (LEVEL_PACK != null) {
+            try {
+                LevelPack pack = LevelPack.open(Paths.get(LEVEL_PACK));
+                session.setLevelPack(pack);
+                session.log("Level pack " + pack.getName() + ": " + pack.size() + " levels.\n");
+            } catch (IOException ex) {
+                session.log("Level pack not loaded, playing the built-in levels: " + ex.getMessage() + "\n");
+            }
+        }
         logScrollPane = storyManager.createLogScrollPane();
-        logScrollPane.setPreferredSize(new Dimension(COLS * CELL_SIZE, 150));
+        logScrollPane.setPreferredSize(new Dimension(VIEW_COLS * CELL_SIZE, 150));
 
-        setSize(COLS * CELL_SIZE + 16, ROWS * CELL_SIZE + 150 + 100);
+        setSize(VIEW_COLS * CELL_SIZE + 16, VIEW_ROWS * CELL_SIZE + 150 + 100);
         setDefaultCloseOperation(EXIT_ON_CLOSE);
         setResizable(false);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                stopRecording();
+                soundManager.stopBackgroundMusic();
+                soundManager.releaseVoices();
+                scheduler.shutdown();
+            }
+        });
 
         addKeyListener(new KeyAdapter() {
             @Override
@@ -165,9 +193,11 @@ public class GraphicalMazeGameEnhanced extends JFrame implements ActionListener
     }
 
     private void showWinScreen() {
+        stopRecording();
         getContentPane().removeAll();
         add(winPanel, BorderLayout.CENTER);
         state = GameState.WIN;
+        soundManager.stopBackgroundMusic();
         soundManager.playEvent("win");
         revalidate();
         repaint();
@@ -206,32 +236,44 @@ public class GraphicalMazeGameEnhanced extends JFrame implements ActionListener
             startNewGame();
         } else if (e.getSource() == resumeButton) {
             resumeGame();
-        } else {
-            monsterManager.moveMonsters();
-            checkStoryTriggers();
-            if (isPlayerOnMonster()) loseGame();
-            gamePanel.repaint();
+        } else if (e.getSource() == enduranceButton) {
+            startEndurance();
         }
     }
 
     private void startNewGame() {
         hideMenu();
-        loadLevel(1);
-        startTimers();
+        stopRecording();
+        session.startCampaign(System.nanoTime());
+        startRecording();
+        startLoop();
+        state = GameState.PLAYING;
+        resumeButton.setEnabled(true);
+    }
+
+    private void startEndurance() {
+        hideMenu();
+        stopRecording();
+        session.startEndurance(System.nanoTime());
+        startRecording();
+        startLoop();
         state = GameState.PLAYING;
         resumeButton.setEnabled(true);
     }
 
     private void resumeGame() {
         hideMenu();
-        startTimers();
+        if (recorder == null && session.getMaze() != null) startRecording();
+        startLoop();
         state = GameState.PLAYING;
+        if (session.getMaze() != null) soundManager.playLevelMusic(session.getCurrentLevel());
     }
 
     private void pauseGame() {
         if (state != GameState.PLAYING) return;
         state = GameState.PAUSED;
-        stopTimers();
+        stopLoop();
+        soundManager.pauseBackgroundMusic();
         gamePanel.setPaused(true);
         showPauseScreen();
     }
@@ -239,40 +281,32 @@ public class GraphicalMazeGameEnhanced extends JFrame implements ActionListener
     private void resumeFromPause() {
         if (state != GameState.PAUSED) return;
         state = GameState.PLAYING;
-        startTimers();
+        startLoop();
+        soundManager.resumeBackgroundMusic();
         gamePanel.setPaused(false);
         hidePauseScreen();
     }
 
     private void quitToMenu() {
-        stopTimers();
+        stopLoop();
+        soundManager.stopBackgroundMusic();
         state = GameState.MENU;
         gamePanel.setPaused(false);
         showMenu();
         resumeButton.setEnabled(saveLoadManager.hasSaveFile());
     }
 
-    private void startTimers() {
-        if (monsterTimer == null) {
-            monsterTimer = new Timer(MONSTER_MOVE_DELAY, this);
-            glowTimer = new Timer(GLOW_ANIMATION_SPEED, ev -> {
-                glowAlpha = glowIncreasing ? glowAlpha + 0.07f : glowAlpha - 0.07f;
-                if (glowAlpha >= 0.9f) glowIncreasing = false;
-                if (glowAlpha <= 0.3f) glowIncreasing = true;
-                gamePanel.repaint();
-            });
-        }
-        monsterTimer.start();
-        glowTimer.start();
+    private void startLoop() {
+        if (gameLoop == null) gameLoop = new GameLoop(new LoopClient(), session.getTicksPerSecond(), TARGET_FPS);
+        gameLoop.start();
     }
 
-    private void stopTimers() {
-        if (monsterTimer != null) monsterTimer.stop();
-        if (glowTimer != null) glowTimer.stop();
+    private void stopLoop() {
+        if (gameLoop != null) gameLoop.stop();
     }
 
     /* --------------------------------------------------------------
-       KEY HANDLING – FINAL WIN ON LEVEL 3
+       KEY HANDLING – rules live in GameSession, this only maps keys
        -------------------------------------------------------------- */
     private void handleKeyPress(KeyEvent e) {
         if (state == GameState.PAUSED && e.getKeyCode() == KeyEvent.VK_P) {
@@ -281,163 +315,157 @@ public class GraphicalMazeGameEnhanced extends JFrame implements ActionListener
         }
         if (state != GameState.PLAYING) return;
 
-        int key = e.getKeyCode();
-        int newX = playerX, newY = playerY, newFacing = playerFacing;
-
-        switch (key) {
-            case KeyEvent.VK_W, KeyEvent.VK_UP -> { newX--; newFacing = 0; }
-            case KeyEvent.VK_A, KeyEvent.VK_LEFT -> { newY--; newFacing = 3; }
-            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> { newX++; newFacing = 2; }
-            case KeyEvent.VK_D, KeyEvent.VK_RIGHT -> { newY++; newFacing = 1; }
-            case KeyEvent.VK_SPACE -> { interactWithSage(); return; }
-            case KeyEvent.VK_V -> { saveLoadManager.saveGame(this); return; }
-            case KeyEvent.VK_L -> { saveLoadManager.loadGame(this); return; }
+        GameInput input;
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_W, KeyEvent.VK_UP -> input = GameInput.UP;
+            case KeyEvent.VK_A, KeyEvent.VK_LEFT -> input = GameInput.LEFT;
+            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> input = GameInput.DOWN;
+            case KeyEvent.VK_D, KeyEvent.VK_RIGHT -> input = GameInput.RIGHT;
+            case KeyEvent.VK_SPACE -> input = GameInput.INTERACT;
+            case KeyEvent.VK_V -> { saveLoadManager.saveGame(session); return; }
+            case KeyEvent.VK_L -> { saveLoadManager.loadGame(session); return; }
             case KeyEvent.VK_H -> { showHelp(); return; }
             case KeyEvent.VK_P -> { pauseGame(); return; }
+            case KeyEvent.VK_F3 -> { gamePanel.togglePerfOverlay(); return; }
+            case KeyEvent.VK_F -> { gamePanel.toggleFog(); return; }
             default -> { return; }
         }
 
-        if (isValidMove(newX, newY)) {
-            char target = maze[newX][newY];
-
-            /* ---------- ITEM PICK-UP ---------- */
-            char requiredItem = switch (currentLevel) {
-                case 1 -> 'A';
-                case 2 -> 'S';
-                case 3 -> 'C';
-                default -> '.';
-            };
-
-            if (target == requiredItem) {
-                hasObjectiveItem = true;
-                maze[newX][newY] = '.';
-                String itemName = switch (currentLevel) {
-                    case 1 -> "Crystal of Eternity";
-                    case 2 -> "Ancient Altar Seal";
-                    case 3 -> "Celestial Spire";
-                    default -> "Unknown Item";
-                };
-                storyManager.appendToLog("You acquired the " + itemName + "!\n");
-                currentObjective = "Find the exit to win!";
-                soundManager.playEvent("pickup");
-                gamePanel.repaint();
-            }
-
-            /* ---------- EXIT – WIN ON LEVEL 3 ---------- */
-            if (target == 'E') {
-                if (!hasObjectiveItem) {
-                    storyManager.appendToLog("Exit is sealed without the item.\n");
-                    soundManager.playEvent("locked");
-                    return;
-                }
+        int oldX = session.getPlayerX(), oldY = session.getPlayerY();
+        recordInput(input);
+        session.step(input);
+        if (storyManager.hasActiveSpeech() && (oldX != session.getPlayerX() || oldY != session.getPlayerY())) {
+            gamePanel.markSpeechBubbleDirty(oldX, oldY);
+            gamePanel.markSpeechBubbleDirty(session.getPlayerX(), session.getPlayerY());
+        }
+        gamePanel.followPlayer();
+        gamePanel.flushDirtyRegions();
+    }
 
-                if (currentLevel < MAX_LEVEL) {
-                    loadLevel(currentLevel + 1);
-                } else {
-                    showWinScreen();  // WIN ON LEVEL 3!
-                }
-                return;
-            }
+    /* --------------------------------------------------------------
+       RECORDING – seed and inputs, replayable with ReplayEngine
+       -------------------------------------------------------------- */
+    private void startRecording() {
+        Path file = RECORD_DIR != null ? Paths.get(RECORD_DIR, "run-" + System.currentTimeMillis() + ".clrp")
+                                       : Paths.get("last_run.clrp");
+        try {
+            if (RECORD_DIR != null) Files.createDirectories(file.getParent());
+            recorder = new InputRecorder(file, session);
+        } catch (IOException ex) {
+            recorder = null;
+            session.log("Recording disabled: " + ex.getMessage() + "\n");
+        }
+    }
 
-            /* ---------- MONSTERS / TRAPS ---------- */
-            if (monsterManager.isMonsterAt(newX, newY) || MonsterManager.isTrapAt(maze, newX, newY)) {
-                loseGame();
-                return;
-            }
+    private void recordInput(GameInput input) {
+        if (recorder == null) return;
+        try {
+            recorder.record(session.getTickCount(), input);
+        } catch (IOException ex) {
+            session.log("Recording stopped: " + ex.getMessage() + "\n");
+            try { recorder.close(); } catch (IOException ignored) { }
+            recorder = null;
+        }
+    }
 
-            /* ---------- MOVE PLAYER ---------- */
-            maze[playerX][playerY] = (maze[playerX][playerY] == 'P') ? '.' : maze[playerX][playerY];
-            playerX = newX; playerY = newY; playerFacing = newFacing;
-            maze[playerX][playerY] = 'P';
-            if (isPlayerOnMonster()) loseGame();
-            gamePanel.repaint();
+    // Seals the recording with the final state hash
+    private void stopRecording() {
+        if (recorder == null) return;
+        try {
+            recorder.finish(session);
+        } catch (IOException ex) {
+            session.log("Recording incomplete: " + ex.getMessage() + "\n");
+        } finally {
+            recorder = null;
         }
     }
 
     /* --------------------------------------------------------------
-       INTERACTION – SAGE ONLY
+       GAME LOOP – fixed ticks, then one interpolated frame
        -------------------------------------------------------------- */
-    private void interactWithSage() {
-        int[] sage = MazeData.getSagePositionForLevel(currentLevel);
-        if (Math.abs(playerX - sage[0]) <= 1 && Math.abs(playerY - sage[1]) <= 1 &&
-            (playerX != sage[0] || playerY != sage[1])) {
-            soundManager.playEvent("sage");
-            sageInteractionStage++;
-            String msg = switch (currentLevel) {
-                case 1 -> sageInteractionStage == 1 ? "Sage: The Crystal lies deep within. Beware the guardians!" : "Sage: Hurry, the curse grows!";
-                case 2 -> sageInteractionStage == 1 ? "Sage: Seal the altar to weaken the curse." : "Sage: The forest hides many eyes.";
-                case 3 -> sageInteractionStage == 1 ? "Sage: The Spire awaits your crystal!" : "Sage: The stars align — victory is near!";
-                default -> "";
-            };
-            storyManager.showSpeechBubble(msg);
-            storyManager.appendToLog(msg + "\n");
-            return;
+    private class LoopClient implements GameLoop.Client {
+        @Override
+        public void update() {
+            long started = System.nanoTime();
+            session.tick();
+            perfMonitor.recordTick(System.nanoTime() - started);
+        }
+
+        @Override
+        public void render(double alpha, long nowNanos) {
+            perfMonitor.recordFrame();
+            if (perfMonitor.roll(nowNanos) && gamePanel.isPerfOverlayVisible()) gamePanel.markOverlayDirty();
+            if (gamePanel.updateGlow(nowNanos)) gamePanel.markGlowCellsDirty();
+            // keep repainting the bubble while it shows, and once more to erase it
+            boolean speechVisible = storyManager.hasActiveSpeech();
+            if (speechVisible || speechWasVisible) gamePanel.markSpeechBubbleDirty(session.getPlayerX(), session.getPlayerY());
+            speechWasVisible = speechVisible;
+            gamePanel.setMonsterProgress(session.getMonsterStepProgress(alpha));
+            gamePanel.markMovingEntitiesDirty();
+            gamePanel.flushDirtyRegions();
         }
-        storyManager.appendToLog("Nothing to interact with.\n");
     }
 
     /* --------------------------------------------------------------
-       LOAD LEVEL – FINAL IS LEVEL 3
+       SESSION EVENTS – sound, story log and repaint bookkeeping
        -------------------------------------------------------------- */
-    public void loadLevel(int level) {
-        currentLevel = level;
-        hasObjectiveItem = false;
-        sageInteractionStage = 0;
-        monsterManager.resetMonstersForLevel(level);
-        maze = MazeData.getMazeClone(level);
-        playerX = 1; playerY = 1; playerFacing = 2;
-        maze[playerX][playerY] = 'P';
-
-        String title = switch (level) {
-            case 1 -> "Level 1: The Cursed Labyrinth";
-            case 2 -> "Level 2: Enchanted Forest";
-            case 3 -> "Level 3: Celestial Ruins (FINAL)";
-            default -> "";
-        };
-        String objective = switch (level) {
-            case 1 -> "Find the Crystal of Eternity.";
-            case 2 -> "Seal the Ancient Altar.";
-            case 3 -> "Place the Celestial Spire and escape!";
-            default -> "";
-        };
-        currentObjective = objective;
-
-        storyManager.appendToLog("\n=== " + title + " ===\n" + objective + "\n");
-        MazeData.addRandomDecorations(maze, level == 1 ? 5 : level == 2 ? 10 : 8);
-        gamePanel.repaint();
-    }
+    private class SessionEvents implements GameListener {
+        @Override public void onLog(String text) { storyManager.appendToLog(text); }
+        @Override public void onCellChanged(int x, int y) { gamePanel.markCellDirty(x, y); }
+
+        // Decorations are baked into the chunk images, so a trampled one needs its chunk re-rendered
+        @Override
+        public void onStaticTileChanged(int x, int y) {
+            gamePanel.invalidateCell(x, y);
+            gamePanel.markCellDirty(x, y);
+        }
 
-    private boolean isValidMove(int x, int y) {
-        return x >= 0 && x < ROWS && y >= 0 && y < COLS &&
-               maze[x][y] != '#' && maze[x][y] != 'W' && maze[x][y] != 'G';
-    }
+        @Override
+        public void onLevelLoaded(int level) {
+            soundManager.playLevelMusic(level);
+            gamePanel.resetView();
+            gamePanel.flushDirtyRegions();
+        }
 
-    private void checkStoryTriggers() {
-        char item = switch (currentLevel) {
-            case 1 -> 'A'; case 2 -> 'S'; case 3 -> 'C';
-            default -> '.';
-        };
-        for (int i = -2; i <= 2; i++) {
-            for (int j = -2; j <= 2; j++) {
-                int tx = playerX + i, ty = playerY + j;
-                if (tx >= 0 && tx < ROWS && ty >= 0 && ty < COLS &&
-                    !hasObjectiveItem && maze[tx][ty] == item) {
-                    soundManager.playEvent("glow");
-                    return;
-                }
-            }
+        // A loaded save starts a new recording from the loaded state
+        @Override
+        public void onRestored() {
+            stopRecording();
+            startRecording();
+        }
+
+        @Override
+        public void onItemCollected(int x, int y) {
+            soundManager.playEvent("pickup");
+            gamePanel.invalidateCell(x, y);
+            gamePanel.markCellDirty(x, y);
+            gamePanel.markGlowCellsDirty();
         }
-    }
 
-    private boolean isPlayerOnMonster() { return monsterManager.isMonsterAt(playerX, playerY); }
+        @Override public void onItemNearby() { soundManager.playEvent("glow"); }
+        @Override public void onExitLocked() { soundManager.playEvent("locked"); }
+
+        @Override
+        public void onSageSpoke(String message) {
+            soundManager.playEvent("sage");
+            storyManager.showSpeechBubble(message);
+            gamePanel.markSpeechBubbleDirty(session.getPlayerX(), session.getPlayerY());
+        }
+
+        // Deferred so the dialog never opens in the middle of a session step
+        @Override public void onGameOver() { SwingUtilities.invokeLater(GraphicalMazeGameEnhanced.this::loseGame); }
+        @Override public void onWin() { SwingUtilities.invokeLater(GraphicalMazeGameEnhanced.this::showWinScreen); }
+    }
 
     private void showHelp() {
         JOptionPane.showMessageDialog(this,
-            "Controls:\nWASD / Arrows: Move\nSPACE: Talk to Sage\nP: Pause\nV: Save\nL: Load\nH: Help",
+            "Controls:\nWASD / Arrows: Move\nSPACE: Talk to Sage\nP: Pause\nV: Save\nL: Load\nH: Help\nF: Fog of war\nF3: Performance overlay",
             "Help", JOptionPane.INFORMATION_MESSAGE);
     }
 
     private void loseGame() {
+        stopLoop();
+        stopRecording();
         soundManager.playEvent("lose");
         JOptionPane.showMessageDialog(this, "Game Over! You were caught.", "Defeat", JOptionPane.ERROR_MESSAGE);
         quitToMenu();
@@ -446,18 +474,7 @@ public class GraphicalMazeGameEnhanced extends JFrame implements ActionListener
     /* --------------------------------------------------------------
        GETTERS
        -------------------------------------------------------------- */
-    public int getCurrentLevel() { return currentLevel; }
-    public int getRows() { return ROWS; }
-    public int getCols() { return COLS; }
-    public int getCellSize() { return CELL_SIZE; }
-    public float getGlowAlpha() { return glowAlpha; }
-    public boolean hasObjectiveItem() { return hasObjectiveItem; }
-    public void setHasObjectiveItem(boolean v) { hasObjectiveItem = v; }
-    public int getPlayerX() { return playerX; }
-    public int getPlayerY() { return playerY; }
-    public int getPlayerFacing() { return playerFacing; }
-    public char[][] getMaze() { return maze; }
-    public MonsterManager getMonsterManager() { return monsterManager; }
+    public GameSession getSession() { return session; }
     public StoryManager getStoryManager() { return storyManager; }
     public SoundManager getSoundManager() { return soundManager; }
 }
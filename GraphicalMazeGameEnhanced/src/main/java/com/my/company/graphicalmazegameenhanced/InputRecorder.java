@@ -0,0 +1,115 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/InputRecorder.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/* --------------------------------------------------------------
+   Records a run as its starting state plus every player input, which
+   together with the session seed is all it takes to reproduce it.
+
+   Recording file, big-endian:
+     int magic 'CLRP' | int version | int ticks per second
+     int length | starting GameSnapshot (save file encoding)
+     inputs: varint (tickDelta << 3 | code)
+       tickDelta = ticks since the previous input (or the start)
+       code 0-4  = GameInput ordinal, applied after that tick
+     end:    varint (tickDelta << 3 | 7) | long GameSession.stateHash()
+   A typical input costs one byte. A recording cut short by a crash
+   has no end record; it still replays, just without a hash to check.
+   Version 2 hashes the explored (fog-of-war) cells too, so version 1
+   end hashes would no longer match and those files are refused.
+   -------------------------------------------------------------- */
+public final class InputRecorder implements Closeable {
+    static final int MAGIC = 0x434C5250;   // "CLRP"
+    static final int VERSION = 2;
+    static final int CODE_END = 7;
+
+    private final Path file;
+    private final DataOutputStream out;
+    private long lastTick;
+    private int inputs = 0;
+    private boolean closed = false;
+
+    // Starts a recording of 'session' as it is right now
+    public InputRecorder(Path file, GameSession session) throws IOException {
+        this.file = file;
+        GameSnapshot start = session.snapshot();
+        ByteBuffer[] parts = SaveLoadManager.encode(start);
+        int length = 0;
+        for (ByteBuffer part : parts) length += part.remaining();
+
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(session.getTicksPerSecond());
+        out.writeInt(length);
+        for (ByteBuffer part : parts) out.write(part.array(), part.arrayOffset() + part.position(), part.remaining());
+        lastTick = start.tickCount();
+    }
+
+    // Call just before the input is handed to GameSession.step()
+    public void record(long tick, GameInput input) throws IOException {
+        writeVarLong(out, (tick - lastTick) << 3 | input.ordinal());
+        lastTick = tick;
+        inputs++;
+    }
+
+    // Ends the recording with the session's final tick and state hash
+    public void finish(GameSession session) throws IOException {
+        if (closed) return;
+        writeVarLong(out, (session.getTickCount() - lastTick) << 3 | CODE_END);
+        out.writeLong(session.stateHash());
+        close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        out.close();
+    }
+
+    public Path getFile() { return file; }
+    public int getInputCount() { return inputs; }
+
+    /* --------------------------------------------------------------
+       VARINTS – 7 bits per byte, low groups first
+       -------------------------------------------------------------- */
+    static void writeVarLong(OutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    // -1 at a clean end of stream
+    static long readVarLong(InputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                if (shift == 0) return -1;
+                throw new EOFException("Recording truncated");
+            }
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return v;
+        }
+        throw new IOException("Recording corrupted");
+    }
+
+    static DataInputStream open(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+    }
+}
@@ -0,0 +1,61 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/LatencyHistogram.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.util.Arrays;
+
+/* --------------------------------------------------------------
+   Log-linear histogram of durations in nanoseconds: each power of
+   two is split into 16 linear buckets, so any percentile is within
+   ~6% of the true value. Recording is a few shifts and an array
+   increment – no allocation, no locking (single writer).
+   -------------------------------------------------------------- */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB + (64 - SUB_BITS) * SUB;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total = 0;
+    private long max = 0;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[index(nanos)]++;
+        total++;
+        if (nanos > max) max = nanos;
+    }
+
+    // Value at percentile p (0..100), as the upper edge of its bucket; 0 if empty
+    public long percentile(double p) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * p / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, upperEdge(i));
+        }
+        return max;
+    }
+
+    public long getCount() { return total; }
+    public long getMax() { return max; }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+
+    private static int index(long v) {
+        if (v < SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+        return SUB + shift * SUB + (int) (v >>> shift) - SUB;
+    }
+
+    private static long upperEdge(int index) {
+        if (index < SUB) return index;
+        int shift = (index - SUB) / SUB;
+        long sub = (index - SUB) % SUB + SUB;
+        return ((sub + 1) << shift) - 1;
+    }
+}
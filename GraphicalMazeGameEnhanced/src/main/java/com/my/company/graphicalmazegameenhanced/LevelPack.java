@@ -0,0 +1,230 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/LevelPack.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/* --------------------------------------------------------------
+   A campaign in one file, big-endian:
+     int magic 'CLPK' | int version | int count
+     index: count x (int offset | int length), offsets from file start
+     then one record per level:
+       int theme | char item | int sageX | int sageY | int decorations
+       int rows | int cols | packed tiles (see MazeGrid)
+       str title | str objective | str itemName
+       int lineCount | str sage line...
+     str = int length | UTF-8 bytes
+   The file is mapped, not read: opening a pack only checks the
+   header and index, and a level's pages are faulted in when that
+   level is asked for, so a pack of thousands of levels opens at once.
+   level(n) decodes the story metadata; grid(n) copies that level's
+   tiles to the heap, because the game mutates its maze and the pack
+   must stay as authored.
+
+   The built-in campaign (MazeData.BUILT_IN) is the same format in a
+   heap buffer; main() exports it as a starting point for new packs:
+     java -cp <game jar> com.mycompany.graphicalmazegameenhanced.LevelPack export campaign.clpk
+   -------------------------------------------------------------- */
+public final class LevelPack {
+    private static final int MAGIC = 0x434C504B;   // "CLPK"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int INDEX_ENTRY_BYTES = 8;
+    private static final int FIXED_BYTES = 26;     // theme .. cols
+
+    // A level's story and setup; the sage's lines are spoken in order and the last one repeats
+    public record Level(String title, String objective, char item, String itemName, int theme,
+                        int sageX, int sageY, int decorations, List<String> sageLines) {
+        public String sageLine(int stage) {
+            return sageLines.isEmpty() ? "" : sageLines.get(Math.max(1, Math.min(stage, sageLines.size())) - 1);
+        }
+    }
+
+    private final String name;
+    private final ByteBuffer image;
+    private final int count;
+
+    private LevelPack(String name, ByteBuffer image) throws IOException {
+        this.name = name;
+        this.image = image;
+        try {
+            if (image.getInt(0) != MAGIC) throw new IOException("Not a level pack: " + name);
+            if (image.getInt(4) != VERSION) throw new IOException("Unsupported level pack version: " + name);
+            count = image.getInt(8);
+            if (count <= 0 || HEADER_BYTES + (long) count * INDEX_ENTRY_BYTES > image.capacity()) {
+                throw new IOException("Level pack corrupted: " + name);
+            }
+            for (int n = 1; n <= count; n++) {
+                int offset = offset(n), length = length(n);
+                if (offset < 0 || length < FIXED_BYTES || (long) offset + length > image.capacity()) {
+                    throw new IOException("Level pack corrupted: " + name + ", level " + n);
+                }
+            }
+        } catch (IndexOutOfBoundsException ex) {
+            throw new IOException("Level pack truncated: " + name, ex);
+        }
+    }
+
+    // Maps a pack file read-only; the mapping outlives the channel
+    public static LevelPack open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("Level pack too large: " + file);
+            return new LevelPack(file.getFileName().toString(), ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /* --------------------------------------------------------------
+       LEVELS – numbered from 1, like GameSession's levels
+       -------------------------------------------------------------- */
+    public Level level(int number) {
+        ByteBuffer r = record(number);
+        try {
+            int theme = r.getInt();
+            char item = r.getChar();
+            int sageX = r.getInt(), sageY = r.getInt(), decorations = r.getInt();
+            int rows = r.getInt(), cols = r.getInt();
+            r.position(r.position() + MazeGrid.packedSize(rows, cols));
+            String title = readString(r), objective = readString(r), itemName = readString(r);
+            int lines = r.getInt();
+            if (lines < 0 || lines > r.remaining() / 4) throw new IllegalArgumentException("Bad sage line count");
+            List<String> sageLines = new ArrayList<>(lines);
+            for (int i = 0; i < lines; i++) sageLines.add(readString(r));
+            return new Level(title, objective, item, itemName, theme, sageX, sageY, decorations, List.copyOf(sageLines));
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Level pack corrupted: " + name + ", level " + number, ex);
+        }
+    }
+
+    // Fresh heap copy of the level's tiles
+    public MazeGrid grid(int number) {
+        ByteBuffer r = record(number);
+        try {
+            r.position(FIXED_BYTES - 8);
+            int rows = r.getInt(), cols = r.getInt();
+            byte[] packed = new byte[MazeGrid.packedSize(rows, cols)];
+            r.get(packed);
+            return MazeGrid.fromPacked(rows, cols, packed);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Level pack corrupted: " + name + ", level " + number, ex);
+        }
+    }
+
+    public int size() { return count; }
+    public String getName() { return name; }
+
+    private ByteBuffer record(int number) {
+        if (number < 1 || number > count) throw new IllegalArgumentException("No level " + number + " in " + name);
+        return image.slice(offset(number), length(number));
+    }
+
+    private int offset(int number) { return image.getInt(HEADER_BYTES + (number - 1) * INDEX_ENTRY_BYTES); }
+    private int length(int number) { return image.getInt(HEADER_BYTES + (number - 1) * INDEX_ENTRY_BYTES + 4); }
+
+    private static String readString(ByteBuffer r) {
+        int length = r.getInt();
+        if (length < 0 || length > r.remaining()) throw new IllegalArgumentException("Bad string length");
+        byte[] bytes = new byte[length];
+        r.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /* --------------------------------------------------------------
+       WRITER – levels in campaign order, then toPack() or write()
+       -------------------------------------------------------------- */
+    public static final class Writer {
+        private final List<ByteBuffer> records = new ArrayList<>();
+
+        public Writer add(Level level, MazeGrid grid) {
+            List<String> lines = level.sageLines();
+            byte[][] strings = new byte[3 + lines.size()][];
+            strings[0] = level.title().getBytes(StandardCharsets.UTF_8);
+            strings[1] = level.objective().getBytes(StandardCharsets.UTF_8);
+            strings[2] = level.itemName().getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < lines.size(); i++) strings[3 + i] = lines.get(i).getBytes(StandardCharsets.UTF_8);
+            ByteBuffer tiles = grid.packedView();
+            int size = FIXED_BYTES + tiles.remaining() + 4;
+            for (byte[] s : strings) size += 4 + s.length;
+
+            ByteBuffer r = ByteBuffer.allocate(size);
+            r.putInt(level.theme()).putChar(level.item())
+             .putInt(level.sageX()).putInt(level.sageY()).putInt(level.decorations())
+             .putInt(grid.getRows()).putInt(grid.getCols()).put(tiles);
+            for (int i = 0; i < 3; i++) r.putInt(strings[i].length).put(strings[i]);
+            r.putInt(lines.size());
+            for (int i = 3; i < strings.length; i++) r.putInt(strings[i].length).put(strings[i]);
+            records.add(r.flip());
+            return this;
+        }
+
+        // The whole pack image: header, index, records
+        public ByteBuffer encode() {
+            if (records.isEmpty()) throw new IllegalStateException("A level pack needs at least one level");
+            long size = HEADER_BYTES + (long) records.size() * INDEX_ENTRY_BYTES;
+            for (ByteBuffer r : records) size += r.remaining();
+            if (size > Integer.MAX_VALUE) throw new IllegalStateException("Level pack too large");
+
+            ByteBuffer out = ByteBuffer.allocate((int) size);
+            out.putInt(MAGIC).putInt(VERSION).putInt(records.size());
+            int offset = HEADER_BYTES + records.size() * INDEX_ENTRY_BYTES;
+            for (ByteBuffer r : records) {
+                out.putInt(offset).putInt(r.remaining());
+                offset += r.remaining();
+            }
+            for (ByteBuffer r : records) out.put(r.duplicate());
+            return out.flip();
+        }
+
+        public LevelPack toPack(String name) {
+            try {
+                return new LevelPack(name, encode());
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);   // encode() only writes valid packs
+            }
+        }
+
+        public void write(Path file) throws IOException {
+            LevelPack.write(file, encode());
+        }
+    }
+
+    private static void write(Path file, ByteBuffer image) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                               StandardOpenOption.WRITE)) {
+            while (image.hasRemaining()) ch.write(image);
+        }
+    }
+
+    /* --------------------------------------------------------------
+       COMMAND LINE
+         export <file>   writes the built-in campaign as a pack file
+         list <file>     prints every level in a pack
+       -------------------------------------------------------------- */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || !(args[0].equals("export") || args[0].equals("list"))) {
+            System.err.println("Usage: LevelPack export <pack.clpk> | LevelPack list <pack.clpk>");
+            System.exit(2);
+        }
+        Path file = Paths.get(args[1]);
+        if (args[0].equals("export")) {
+            write(file, MazeData.BUILT_IN.image.duplicate().clear());
+            System.out.println("Wrote " + MazeData.BUILT_IN.size() + " levels to " + file);
+            return;
+        }
+        LevelPack pack = open(file);
+        for (int n = 1; n <= pack.size(); n++) {
+            Level level = pack.level(n);
+            MazeGrid grid = pack.grid(n);
+            System.out.printf("%4d  %-40s %dx%d  item '%c' (%s), theme %d, %d sage lines%n",
+                              n, level.title(), grid.getRows(), grid.getCols(), level.item(), level.itemName(),
+                              level.theme(), level.sageLines().size());
+        }
+    }
+}
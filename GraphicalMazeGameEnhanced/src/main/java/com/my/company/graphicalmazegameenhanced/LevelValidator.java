@@ -0,0 +1,295 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/LevelValidator.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+
+/* --------------------------------------------------------------
+   Checks that a level can be won the way the game plays it, after
+   its random decorations are placed:
+     - the sage can be talked to (a cell next to 'G' is reachable)
+     - the objective item is reachable from the start (1,1) without
+       stepping on a trap or on the still-sealed exit
+     - 'E' is reachable from the item
+   Monsters are ignored: they move, so they never seal a path for good.
+   It also reports the shape of the level: the shortest winning path
+   (start -> item -> exit), dead-end ratio and choke points, the
+   cells whose loss would cut the reachable maze in two.
+
+   Levels are validated in parallel on the common fork-join pool,
+   each on its own arrays. Command line, exits 1 if any level fails:
+     java -cp <game jar> com.mycompany.graphicalmazegameenhanced.LevelValidator pack <pack.clpk | builtin> [seed]
+     java -cp <game jar> com.mycompany.graphicalmazegameenhanced.LevelValidator seeds <count> <depth> [firstSeed]
+   A seed batch checks endurance depth <depth> of runs started with
+   seeds firstSeed, firstSeed + 1, ...
+   -------------------------------------------------------------- */
+public final class LevelValidator {
+    // What a cell is to the validator; everything >= SAFE can be walked while hunting for the item
+    private static final byte WALL = 0, EXIT = 1, SAFE = 2, ITEM = 3;
+    private static final int START_X = 1, START_Y = 1;
+    private static final int SPLIT_BELOW = 16;   // levels per fork-join leaf
+
+    // Distances are in player steps, -1 when unreachable; 'error' is set when the level could not even be set up
+    public record Report(String label, String error, int sageDistance, int itemDistance, int exitDistance,
+                         int openCells, int deadEnds, int chokePoints) {
+        public boolean solvable() { return error == null && sageDistance >= 0 && itemDistance >= 0 && exitDistance >= 0; }
+        public int pathLength() { return solvable() ? itemDistance + exitDistance : -1; }
+        public double deadEndRatio() { return openCells > 0 ? (double) deadEnds / openCells : 0; }
+
+        public String problem() {
+            if (error != null) return error;
+            if (sageDistance < 0) return "sage unreachable";
+            if (itemDistance < 0) return "item unreachable";
+            if (exitDistance < 0) return "exit unreachable from the item";
+            return null;
+        }
+    }
+
+    private LevelValidator() {}
+
+    /* --------------------------------------------------------------
+       ONE LEVEL – the maze is unpacked once into a byte per cell with
+       a ring of wall around it, so every pass below is plain array
+       walking with no bounds checks and no tile decoding
+       -------------------------------------------------------------- */
+    public static Report validate(String label, MazeGrid maze, int sageX, int sageY, char item) {
+        int rows = maze.getRows(), cols = maze.getCols(), width = cols + 2;
+        byte[] kind = new byte[(rows + 2) * width];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                char c = maze.get(i, j);
+                kind[(i + 1) * width + j + 1] = c == 'E' ? EXIT : !isSafe(c) ? WALL : c == item ? ITEM : SAFE;
+            }
+        }
+        int[] step = {-width, 1, width, -1};   // indexed by facing: 0=up, 1=right, 2=down, 3=left
+        int start = (START_X + 1) * width + START_Y + 1;
+        if (!maze.inBounds(START_X, START_Y) || kind[start] < SAFE) return new Report(label, null, -1, -1, -1, 0, 0, 0);
+
+        int[] dist = new int[kind.length], queue = new int[kind.length];
+        bfs(kind, step, start, dist, queue);
+        int sageDistance = -1;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if ((dx == 0 && dy == 0) || !maze.inBounds(sageX + dx, sageY + dy)) continue;
+                int n = (sageX + dx + 1) * width + sageY + dy + 1;
+                if (kind[n] >= SAFE && dist[n] >= 0 && (sageDistance < 0 || dist[n] < sageDistance)) sageDistance = dist[n];
+            }
+        }
+        int itemCell = nearest(kind, dist, ITEM);
+        int itemDistance = itemCell >= 0 ? dist[itemCell] : -1;
+        int exitDistance = -1;
+        if (itemCell >= 0) {
+            bfs(kind, step, itemCell, dist, queue);
+            int exitCell = nearest(kind, dist, EXIT);
+            if (exitCell >= 0) exitDistance = dist[exitCell];
+        }
+
+        // Shape of everything reachable from the start; dist and queue are reused as Tarjan's arrays
+        int[] shape = chokePoints(kind, step, start, dist, queue);
+        return new Report(label, null, sageDistance, itemDistance, exitDistance, shape[0], shape[1], shape[2]);
+    }
+
+    // What the game places in a level as it loads, so validation sees the same maze the player does
+    public static Report validatePackLevel(LevelPack pack, int number, long seed) {
+        LevelPack.Level level = pack.level(number);
+        MazeGrid maze = pack.grid(number);
+        String label = number + ". " + level.title();
+        try {
+            GameSession.placeStartAndDecorations(maze, level.decorations(), seed, number);
+        } catch (IllegalStateException ex) {
+            return new Report(label, ex.getMessage(), -1, -1, -1, 0, 0, 0);
+        }
+        return validate(label, maze, level.sageX(), level.sageY(), level.item());
+    }
+
+    // Depth 'depth' of an endurance run started with 'seed': the same maze, item and decorations the player gets
+    public static Report validateGenerated(long seed, int depth) {
+        MazeGrid maze = GameSession.generateEnduranceMaze(seed, depth);
+        String label = "seed " + seed + " depth " + depth;
+        try {
+            GameSession.placeStartAndDecorations(maze, GameSession.enduranceDecorations(depth), seed, -depth);
+        } catch (IllegalStateException ex) {
+            return new Report(label, ex.getMessage(), -1, -1, -1, 0, 0, 0);
+        }
+        int[] sage = MazeData.findTile(maze, 'G');
+        return validate(label, maze, sage[0], sage[1], GameSession.enduranceItem(depth));
+    }
+
+    // Cells the player can stand on while hunting for the item: no walls, traps or the sealed exit
+    private static boolean isSafe(char tile) {
+        return GameSession.canEnter(tile) && tile != 'X' && tile != 'E';
+    }
+
+    // Fills dist with steps from 'start' over walkable cells; the exit gets a distance but is never walked through
+    private static void bfs(byte[] kind, int[] step, int start, int[] dist, int[] queue) {
+        Arrays.fill(dist, -1);
+        int head = 0, tail = 0;
+        dist[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int k = queue[head++];
+            for (int s : step) {
+                int n = k + s;
+                if (dist[n] >= 0 || kind[n] == WALL) continue;
+                dist[n] = dist[k] + 1;
+                if (kind[n] != EXIT) queue[tail++] = n;
+            }
+        }
+    }
+
+    // Reachable cell of the given kind with the smallest distance, or -1
+    private static int nearest(byte[] kind, int[] dist, byte want) {
+        int best = -1;
+        for (int k = 0; k < kind.length; k++) {
+            if (kind[k] == want && dist[k] >= 0 && (best < 0 || dist[k] < dist[best])) best = k;
+        }
+        return best;
+    }
+
+    /* --------------------------------------------------------------
+       CHOKE POINTS – articulation points of the walkable cells reached
+       from the start, by iterative Tarjan (a recursive one overflows
+       the stack on big mazes). Returns {openCells, deadEnds, chokePoints}.
+       -------------------------------------------------------------- */
+    private static int[] chokePoints(byte[] kind, int[] step, int root, int[] disc, int[] low) {
+        int cells = kind.length;
+        Arrays.fill(disc, 0);            // 0 = not visited yet; times start at 1
+        int[] stack = new int[cells];
+        byte[] nextDir = new byte[cells];
+        boolean[] cut = new boolean[cells];
+        int open = 0, deadEnds = 0, chokes = 0, rootChildren = 0, time = 0, sp = 0;
+
+        disc[root] = low[root] = ++time;
+        stack[sp++] = root;
+        while (sp > 0) {
+            int v = stack[sp - 1];
+            int dir = nextDir[v];
+            if (dir < 4) {
+                nextDir[v]++;
+                int w = v + step[dir];
+                if (kind[w] < SAFE) continue;
+                if (disc[w] == 0) {
+                    disc[w] = low[w] = ++time;
+                    stack[sp++] = w;
+                    if (v == root) rootChildren++;
+                } else if (sp < 2 || w != stack[sp - 2]) {
+                    low[v] = Math.min(low[v], disc[w]);
+                }
+                continue;
+            }
+
+            // v is finished: count it, then hand its low-link to its parent
+            open++;
+            int degree = 0;
+            for (int s : step) if (kind[v + s] >= SAFE) degree++;
+            if (degree == 1) deadEnds++;
+            sp--;
+            if (sp > 0) {
+                int parent = stack[sp - 1];
+                low[parent] = Math.min(low[parent], low[v]);
+                if (parent != root && low[v] >= disc[parent] && !cut[parent]) {
+                    cut[parent] = true;
+                    chokes++;
+                }
+            }
+        }
+        if (rootChildren > 1) chokes++;
+        return new int[]{open, deadEnds, chokes};
+    }
+
+    /* --------------------------------------------------------------
+       BATCHES – fork-join over level indices
+       -------------------------------------------------------------- */
+    public static Report[] validatePack(LevelPack pack, long seed) {
+        return validateAll(pack.size(), i -> validatePackLevel(pack, i + 1, seed));
+    }
+
+    public static Report[] validateSeeds(long firstSeed, int count, int depth) {
+        return validateAll(count, i -> validateGenerated(firstSeed + i, depth));
+    }
+
+    private static Report[] validateAll(int count, IntFunction<Report> check) {
+        Report[] reports = new Report[count];
+        ForkJoinPool.commonPool().invoke(new Batch(reports, check, 0, count));
+        return reports;
+    }
+
+    private static final class Batch extends RecursiveAction {
+        private final Report[] reports;
+        private final IntFunction<Report> check;
+        private final int from, to;
+
+        Batch(Report[] reports, IntFunction<Report> check, int from, int to) {
+            this.reports = reports;
+            this.check = check;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_BELOW) {
+                for (int i = from; i < to; i++) reports[i] = check.apply(i);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(reports, check, from, mid), new Batch(reports, check, mid, to));
+        }
+    }
+
+    /* --------------------------------------------------------------
+       COMMAND LINE – packs list every level, seed batches only the
+       failures, both end with a summary
+       -------------------------------------------------------------- */
+    public static void main(String[] args) throws IOException {
+        boolean pack = args.length >= 2 && args.length <= 3 && args[0].equals("pack");
+        boolean seeds = args.length >= 3 && args.length <= 4 && args[0].equals("seeds");
+        if (!pack && !seeds) {
+            System.err.println("Usage: LevelValidator pack <pack.clpk | builtin> [seed]");
+            System.err.println("       LevelValidator seeds <count> <depth> [firstSeed]");
+            System.exit(2);
+        }
+
+        long started = System.nanoTime();
+        Report[] reports;
+        if (pack) {
+            LevelPack levels = args[1].equals("builtin") ? MazeData.BUILT_IN : LevelPack.open(Paths.get(args[1]));
+            reports = validatePack(levels, args.length > 2 ? Long.parseLong(args[2]) : 0);
+        } else {
+            reports = validateSeeds(args.length > 3 ? Long.parseLong(args[3]) : 0,
+                                    Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        }
+        long nanos = System.nanoTime() - started;
+
+        int failed = 0;
+        long pathTotal = 0, chokeTotal = 0;
+        double deadEndTotal = 0;
+        for (Report r : reports) {
+            if (!r.solvable()) {
+                failed++;
+                System.out.println("FAIL  " + r.label() + "  " + r.problem());
+                continue;
+            }
+            pathTotal += r.pathLength();
+            chokeTotal += r.chokePoints();
+            deadEndTotal += r.deadEndRatio();
+            if (pack) {
+                System.out.printf("OK    %s  path %d, sage %d, %d open cells, dead ends %.0f%%, %d choke points%n",
+                                  r.label(), r.pathLength(), r.sageDistance(), r.openCells(),
+                                  r.deadEndRatio() * 100, r.chokePoints());
+            }
+        }
+        int solved = reports.length - failed;
+        System.out.printf("%d levels, %d failed, %.2f s (%.0f levels/s)%n",
+                          reports.length, failed, nanos / 1e9, reports.length * 1e9 / nanos);
+        if (solved > 0) {
+            System.out.printf("average path %.1f, dead ends %.1f%%, %.1f choke points%n",
+                              (double) pathTotal / solved, deadEndTotal * 100 / solved, (double) chokeTotal / solved);
+        }
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
@@ -3,11 +3,10 @@
 
 package com.mycompany.graphicalmazegameenhanced;
 
-import java.util.Random;
+import java.util.List;
+import java.util.SplittableRandom;
 
 public class MazeData {
-    private static final Random random = new Random();
-
     /* --------------------------------------------------------------
        LEVEL 1 – Crystal of Eternity ('A')
        -------------------------------------------------------------- */
@@ -88,41 +87,66 @@ public class MazeData {
         {'#', '#', '#', '#', '#', '#', '#', '#', '#', '#'}
     };
 
+    /* --------------------------------------------------------------
+       BUILT-IN CAMPAIGN – the grids above with their story, packed as
+       a LevelPack like any external pack (-Dmaze.levels=...)
+       -------------------------------------------------------------- */
+    public static final LevelPack BUILT_IN = new LevelPack.Writer()
+        .add(new LevelPack.Level("Level 1: The Cursed Labyrinth", "Find the Crystal of Eternity.",
+                                 'A', "Crystal of Eternity", 1, 4, 3, 5,
+                                 List.of("Sage: The Crystal lies deep within. Beware the guardians!",
+                                         "Sage: Hurry, the curse grows!")),
+             MazeGrid.fromChars(LEVEL1))
+        .add(new LevelPack.Level("Level 2: Enchanted Forest", "Seal the Ancient Altar.",
+                                 'S', "Ancient Altar Seal", 2, 4, 3, 10,
+                                 List.of("Sage: Seal the altar to weaken the curse.",
+                                         "Sage: The forest hides many eyes.")),
+             MazeGrid.fromChars(LEVEL2))
+        .add(new LevelPack.Level("Level 3: Celestial Ruins", "Place the Celestial Spire and escape!",
+                                 'C', "Celestial Spire", 3, 4, 3, 8,
+                                 List.of("Sage: The Spire awaits your crystal!",
+                                         "Sage: The stars align — victory is near!")),
+             MazeGrid.fromChars(LEVEL3))
+        .add(new LevelPack.Level("Level 4: The Warden's Keep", "Take the Warden's Heart from its keeper.",
+                                 'H', "Warden's Heart", 1, 4, 3, 8,
+                                 List.of("Sage: The Warden guards its Heart. Watch your step, not every floor is safe!",
+                                         "Sage: Slip past the Warden while it looks away.")),
+             MazeGrid.fromChars(LEVEL4))
+        .add(new LevelPack.Level("Level 5: The Prism Sanctum (FINAL)", "Claim the Final Prism and break the curse!",
+                                 'F', "Final Prism", 3, 4, 3, 8,
+                                 List.of("Sage: The Final Prism will end the curse for good.",
+                                         "Sage: One last step — the light is with you!")),
+             MazeGrid.fromChars(LEVEL5))
+        .toPack("built-in");
+
     /* --------------------------------------------------------------
        Utility methods (protects ALL items: A,S,C,H,F)
        -------------------------------------------------------------- */
-    public static char[][] getMazeClone(int level) {
-        char[][] src = switch (level) {
-            case 1 -> LEVEL1;
-            case 2 -> LEVEL2;
-            case 3 -> LEVEL3;
-            case 4 -> LEVEL4;
-            case 5 -> LEVEL5;
-            default -> LEVEL1;
-        };
-        char[][] out = new char[src.length][src[0].length];
-        for (int i = 0; i < src.length; i++) out[i] = src[i].clone();
-        return out;
+    public static boolean isItem(char tile) {
+        return "ASCHF".indexOf(tile) != -1;
     }
 
-    public static int[] getSagePositionForLevel(int level) {
-        return new int[]{4, 3};
+    // Position {row, col} of the first 'tile' in row-major order, or {-1, -1}
+    public static int[] findTile(MazeGrid maze, char tile) {
+        for (int i = 0; i < maze.getRows(); i++)
+            for (int j = 0; j < maze.getCols(); j++)
+                if (maze.get(i, j) == tile) return new int[]{i, j};
+        return new int[]{-1, -1};
     }
 
-    public static void addRandomDecorations(char[][] maze, int count) {
+    // Draws from the caller's stream, so a session seed always decorates a level the same way.
+    // Only free '.' cells are used (never the player, sage, exit, items or monsters), one O(1) pick each.
+    // The index lives only for this call, so nothing is paid when count is 0 or on later moves.
+    public static void addRandomDecorations(MazeGrid maze, int count, SplittableRandom random) {
+        if (count <= 0) return;
+        FreeCellIndex free = maze.scanFreeCells();
+        if (count > free.size()) {
+            throw new IllegalStateException("Cannot place " + count + " decorations, only " + free.size() + " free cells");
+        }
         for (int i = 0; i < count; i++) {
-            int rx, ry;
-            do {
-                rx = random.nextInt(maze.length);
-                ry = random.nextInt(maze[0].length);
-            } while (maze[rx][ry] != '.' ||
-                    (rx == 1 && ry == 1) ||           // player start
-                    (rx == 4 && ry == 3) ||           // sage
-                    maze[rx][ry] == 'E' ||            // exit
-                    "ASCHF".indexOf(maze[rx][ry]) != -1 ||  // ✅ ALL items!
-                    maze[rx][ry] == 'M' || maze[rx][ry] == 'B');
-
-            maze[rx][ry] = 'T';
+            int cell = free.pick(random);
+            maze.set(free.rowOf(cell), free.colOf(cell), 'T');
+            free.remove(cell);
         }
     }
 }
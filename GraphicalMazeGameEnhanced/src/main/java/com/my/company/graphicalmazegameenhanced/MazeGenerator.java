@@ -0,0 +1,188 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/MazeGenerator.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+/* --------------------------------------------------------------
+   Seeded procedural levels built with Eller's algorithm. Eller's
+   works one row at a time and only remembers the row above, so a
+   level of any height is produced in O(cols) memory: stream() hands
+   each finished row to a RowSink, generate() packs them into a heap
+   MazeGrid and generateToFile() into a memory-mapped maze file.
+
+   Layout of a generated level (rows/cols rounded down to odd):
+     - 'P' in the top-left cell (1,1)
+     - 'G' sage on the first dead end after the start (or in the left
+       wall if the first rows have none)
+     - the objective item somewhere in the lower half
+     - 'E' cut into the bottom wall under the last cell, so the exit
+       never seals off part of the maze
+     - 'X' traps only on dead ends and 'M' monsters on open cells,
+       both kept away from the start
+   The maze is perfect (exactly one path between any two cells), and
+   nothing impassable is ever put on a through-corridor, so every
+   generated level is solvable.
+   -------------------------------------------------------------- */
+public class MazeGenerator {
+    public static final int MIN_SIZE = 7;
+    public static final int MAX_SIZE = 10_000;
+
+    private static final int SAFE_DISTANCE = 6;      // no traps or monsters this close to the start
+    private static final int MONSTER_ONE_IN = 45;    // open cells per monster, on average
+    private static final int TRAP_ONE_IN = 6;        // dead ends per trap, on average
+    private static final int SAGE_SEARCH_ROWS = 4;   // cell rows searched for a sage dead end
+
+    // Receives each finished row in order; the array is reused, copy it if you keep it
+    public interface RowSink {
+        void acceptRow(int row, char[] line);
+    }
+
+    public static int normalizeSize(int size) {
+        int s = Math.max(MIN_SIZE, Math.min(MAX_SIZE, size));
+        return (s % 2 == 0) ? s - 1 : s;
+    }
+
+    public static MazeGrid generate(long seed, int rows, int cols, char item) {
+        MazeGrid grid = MazeGrid.create(normalizeSize(rows), normalizeSize(cols));
+        stream(seed, rows, cols, item, grid::setRow);
+        return grid;
+    }
+
+    // Streams straight into a maze file, so huge levels never pass through the heap
+    public static void generateToFile(Path file, long seed, int rows, int cols, char item) throws IOException {
+        MazeGrid grid = MazeGrid.createFile(file, normalizeSize(rows), normalizeSize(cols));
+        stream(seed, rows, cols, item, grid::setRow);
+    }
+
+    public static void stream(long seed, int rows, int cols, char item, RowSink sink) {
+        rows = normalizeSize(rows);
+        cols = normalizeSize(cols);
+        Random random = new Random(seed);
+        int n = (cols - 1) / 2;          // cells per row
+        int m = (rows - 1) / 2;          // rows of cells
+
+        int[] parent = new int[n];       // union-find over the columns of the current row
+        int[] nextParent = new int[n];
+        boolean[] right = new boolean[n];
+        boolean[] down = new boolean[n];
+        boolean[] up = new boolean[n];
+        int[] members = new int[n];      // per set root: cells seen so far in this row
+        int[] candidate = new int[n];    // per set root: cell picked to carry the set downwards
+        boolean[] hasDown = new boolean[n];
+        int[] firstBelow = new int[n];   // per old root: column that continues the set in the next row
+        char[] line = new char[cols];
+
+        int itemRow = m / 2 + random.nextInt(Math.max(1, m - m / 2));
+        int itemCol = random.nextInt(n);
+        boolean sagePlaced = false, itemPlaced = false;
+
+        fill(line, '#');
+        sink.acceptRow(0, line);
+        for (int c = 0; c < n; c++) parent[c] = c;
+
+        for (int r = 0; r < m; r++) {
+            boolean lastRow = r == m - 1;
+
+            /* ---------- join neighbours that are in different sets ---------- */
+            for (int c = 0; c < n - 1; c++) {
+                int a = find(parent, c), b = find(parent, c + 1);
+                right[c] = a != b && (lastRow || random.nextBoolean());
+                if (right[c]) parent[Math.max(a, b)] = Math.min(a, b);
+            }
+            right[n - 1] = false;
+
+            /* ---------- every set continues downwards at least once ---------- */
+            if (!lastRow) {
+                for (int c = 0; c < n; c++) {
+                    members[c] = 0;
+                    hasDown[c] = false;
+                }
+                for (int c = 0; c < n; c++) {
+                    int root = find(parent, c);
+                    down[c] = random.nextBoolean();
+                    if (down[c]) hasDown[root] = true;
+                    if (random.nextInt(++members[root]) == 0) candidate[root] = c;
+                }
+                for (int c = 0; c < n; c++) {
+                    if (find(parent, c) == c && !hasDown[c]) down[candidate[c]] = true;
+                }
+            } else {
+                for (int c = 0; c < n; c++) down[c] = false;
+            }
+
+            /* ---------- emit the cell row with its contents ---------- */
+            line[0] = '#';
+            for (int c = 0; c < n; c++) {
+                int x = 2 * r + 1, y = 2 * c + 1;
+                int degree = (up[c] ? 1 : 0) + (down[c] ? 1 : 0) + (right[c] ? 1 : 0) + (c > 0 && right[c - 1] ? 1 : 0);
+                boolean deadEnd = degree == 1;
+                boolean start = r == 0 && c == 0;
+                boolean exitCell = lastRow && c == n - 1;
+                boolean farFromStart = (x - 1) + (y - 1) > SAFE_DISTANCE;
+                char tile = '.';
+
+                if (start) {
+                    tile = 'P';
+                } else if (deadEnd && !sagePlaced && !exitCell && r < SAGE_SEARCH_ROWS) {
+                    tile = 'G';
+                    sagePlaced = true;
+                } else if (!itemPlaced && (r > itemRow || (r == itemRow && c >= itemCol))) {
+                    tile = item;
+                    itemPlaced = true;
+                } else if (deadEnd && !exitCell && farFromStart && random.nextInt(TRAP_ONE_IN) == 0) {
+                    tile = 'X';
+                } else if (farFromStart && random.nextInt(MONSTER_ONE_IN) == 0) {
+                    tile = 'M';
+                }
+                line[y] = tile;
+                line[y + 1] = right[c] ? '.' : '#';
+            }
+            line[cols - 1] = '#';
+            // No usable dead end near the top (tiny mazes): the sage stands in the left wall instead
+            if (!sagePlaced && (lastRow || r == SAGE_SEARCH_ROWS - 1)) {
+                line[0] = 'G';
+                sagePlaced = true;
+            }
+            sink.acceptRow(2 * r + 1, line);
+
+            /* ---------- emit the wall row below it ---------- */
+            fill(line, '#');
+            if (lastRow) {
+                line[2 * (n - 1) + 1] = 'E';
+            } else {
+                for (int c = 0; c < n; c++) if (down[c]) line[2 * c + 1] = '.';
+            }
+            sink.acceptRow(2 * r + 2, line);
+
+            /* ---------- carry the sets into the next row ---------- */
+            if (!lastRow) {
+                for (int c = 0; c < n; c++) firstBelow[c] = -1;
+                for (int c = 0; c < n; c++) {
+                    if (down[c]) {
+                        int root = find(parent, c);
+                        if (firstBelow[root] < 0) firstBelow[root] = c;
+                        nextParent[c] = firstBelow[root];
+                    } else {
+                        nextParent[c] = c;   // a fresh set of its own
+                    }
+                    up[c] = down[c];
+                }
+                int[] t = parent; parent = nextParent; nextParent = t;
+            }
+        }
+    }
+
+    private static int find(int[] parent, int c) {
+        while (parent[c] != c) {
+            parent[c] = parent[parent[c]];
+            c = parent[c];
+        }
+        return c;
+    }
+
+    private static void fill(char[] line, char c) {
+        for (int i = 0; i < line.length; i++) line[i] = c;
+    }
+}
@@ -0,0 +1,154 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/MazeGrid.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/* --------------------------------------------------------------
+   Flat maze storage: every tile is a 4-bit code, two tiles per byte,
+   row-major. The bytes live either on the heap or in a memory-mapped
+   maze file, so a 100M-cell maze costs 50 MB of page cache instead
+   of 200 MB+ of char[][] on the heap. Callers still talk in the
+   familiar tile chars ('#', '.', 'P', 'M', ...).
+
+   Maze file layout (big-endian):
+     int magic 'CLMZ' | int version | int rows | int cols | packed tiles
+   -------------------------------------------------------------- */
+public final class MazeGrid {
+    private static final int MAGIC = 0x434C4D5A;   // "CLMZ"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int FREE_CODE = 1;         // '.'
+
+    // Code 0 is a wall so a freshly allocated grid is solid rock
+    private static final char[] CODE_TO_TILE = {
+        '#', '.', 'W', 'P', 'M', 'B', 'G', 'A', 'S', 'C', 'H', 'F', 'E', 'T', 'X', '?'
+    };
+    private static final byte[] TILE_TO_CODE = new byte[128];
+    static {
+        Arrays.fill(TILE_TO_CODE, (byte) -1);
+        for (int i = 0; i < CODE_TO_TILE.length - 1; i++) TILE_TO_CODE[CODE_TO_TILE[i]] = (byte) i;
+    }
+
+    private final int rows, cols;
+    private final ByteBuffer cells;      // packed tiles only, header excluded
+    private final boolean mapped;
+
+    private MazeGrid(int rows, int cols, ByteBuffer cells, boolean mapped) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = cells;
+        this.mapped = mapped;
+    }
+
+    /* --------------------------------------------------------------
+       FACTORIES
+       -------------------------------------------------------------- */
+    public static MazeGrid create(int rows, int cols) {
+        return new MazeGrid(rows, cols, ByteBuffer.wrap(new byte[packedSize(rows, cols)]), false);
+    }
+
+    public static MazeGrid fromChars(char[][] tiles) {
+        MazeGrid grid = create(tiles.length, tiles[0].length);
+        for (int i = 0; i < tiles.length; i++) grid.setRow(i, tiles[i]);
+        return grid;
+    }
+
+    // Wraps already packed tiles (e.g. from a save file) in a heap grid
+    public static MazeGrid fromPacked(int rows, int cols, byte[] packed) {
+        if (packed.length != packedSize(rows, cols)) throw new IllegalArgumentException("Packed maze has wrong size");
+        return new MazeGrid(rows, cols, ByteBuffer.wrap(packed), false);
+    }
+
+    // Creates (or truncates) a maze file and maps it read/write; writes go straight to the file
+    public static MazeGrid createFile(Path file, int rows, int cols) throws IOException {
+        long size = HEADER_BYTES + (long) packedSize(rows, cols);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                               StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buf.order(ByteOrder.BIG_ENDIAN).putInt(MAGIC).putInt(VERSION).putInt(rows).putInt(cols);
+            return new MazeGrid(rows, cols, buf.position(HEADER_BYTES).slice(), true);
+        }
+    }
+
+    // Opens a maze file copy-on-write: the game can mutate tiles, the file on disk never changes
+    public static MazeGrid open(Path file) throws IOException {
+        // PRIVATE mappings need a writable channel even though nothing is ever written back
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (ch.size() < HEADER_BYTES) throw new IOException("Not a maze file: " + file);
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.PRIVATE, 0, ch.size());
+            if (buf.getInt() != MAGIC) throw new IOException("Not a maze file: " + file);
+            if (buf.getInt() != VERSION) throw new IOException("Unsupported maze file version: " + file);
+            int rows = buf.getInt(), cols = buf.getInt();
+            if (rows <= 0 || cols <= 0 || ch.size() < HEADER_BYTES + (long) packedSize(rows, cols)) {
+                throw new IOException("Maze file truncated: " + file);
+            }
+            return new MazeGrid(rows, cols, buf.slice(), true);
+        }
+    }
+
+    public static int packedSize(int rows, int cols) {
+        long bytes = ((long) rows * cols + 1) / 2;
+        if (rows <= 0 || cols <= 0 || bytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Maze too large: " + rows + "x" + cols);
+        return (int) bytes;
+    }
+
+    /* --------------------------------------------------------------
+       TILE ACCESS
+       -------------------------------------------------------------- */
+    public char get(int row, int col) {
+        long index = (long) row * cols + col;
+        int b = cells.get((int) (index >>> 1));
+        return CODE_TO_TILE[(index & 1) == 0 ? b & 0x0F : (b >>> 4) & 0x0F];
+    }
+
+    public void set(int row, int col, char tile) {
+        long index = (long) row * cols + col;
+        int at = (int) (index >>> 1);
+        int b = cells.get(at);
+        int code = codeOf(tile);
+        b = (index & 1) == 0 ? (b & 0xF0) | code : (b & 0x0F) | (code << 4);
+        cells.put(at, (byte) b);
+    }
+
+    public void setRow(int row, char[] tiles) {
+        for (int j = 0; j < cols; j++) set(row, j, tiles[j]);
+    }
+
+    public boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    // A fresh index of the free ('.') cells, one scan; it is not updated by later set() calls
+    public FreeCellIndex scanFreeCells() {
+        return new FreeCellIndex(rows, cols, cells, FREE_CODE);
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public boolean isMapped() { return mapped; }
+
+    // Heap copy of the tiles; a mapped grid is copied into memory
+    public MazeGrid copy() {
+        byte[] packed = new byte[cells.capacity()];
+        cells.duplicate().clear().get(packed);
+        return new MazeGrid(rows, cols, ByteBuffer.wrap(packed), false);
+    }
+
+    // Read-only view of the packed tiles, for persistence
+    public ByteBuffer packedView() {
+        return cells.asReadOnlyBuffer().clear();
+    }
+
+    private static int codeOf(char tile) {
+        int code = tile < 128 ? TILE_TO_CODE[tile] : -1;
+        if (code < 0) throw new IllegalArgumentException("Unknown maze tile '" + tile + "'");
+        return code;
+    }
+}
@@ -1,119 +1,337 @@
 // File: src/com/mycompany/graphicalmazegameenhanced/MonsterManager.java
 package com.mycompany.graphicalmazegameenhanced;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class MonsterManager {
-    private final GraphicalMazeGameEnhanced game;
-    private final List<int[]> monsters = new ArrayList<>();
-    private final Random random = new Random();
-    private int[] boss = null;
-    private boolean bossAlive = false;
+    public static final byte TYPE_MONSTER = 0;
+    public static final byte TYPE_BOSS = 1;
 
-    public MonsterManager(GraphicalMazeGameEnhanced game) {
+    // Chasers react to the player this many steps away; the boss hunts from further
+    public static final int MONSTER_CHASE_RADIUS = 5;
+    public static final int BOSS_CHASE_RADIUS = FlowField.RADIUS;
+
+    // Indexed by facing: 0=up, 1=right, 2=down, 3=left
+    private static final int[] DIR_X = {-1, 0, 1, 0};
+    private static final int[] DIR_Y = {0, 1, 0, -1};
+
+    // Below this many entities a tick is cheaper on one thread than split across the pool
+    static final int PARALLEL_THRESHOLD = 4096;
+    private static final int PARTITION_SIZE = 1024;
+    private static final byte STAY = -1;
+
+    // Entities are also filed in buckets of BUCKET_SIZE x BUCKET_SIZE cells, so a view finds its entities directly
+    public static final int BUCKET_SIZE = 8;
+    private static final int BUCKET_SHIFT = 3;
+
+    private final GameSession game;
+    private final FlowField flowField = new FlowField();
+    private ForkJoinPool pool = ForkJoinPool.commonPool();   // runs the parallel propose phase
+    private long seed = 0;   // set by GameSession from its session seed
+
+    // Entities are stored as parallel arrays; the boss is just an entity of TYPE_BOSS
+    private int count = 0;
+    private int[] xs = new int[8];
+    private int[] ys = new int[8];
+    private byte[] facings = new byte[8];
+    private byte[] types = new byte[8];
+    private boolean[] alive = new boolean[8];
+    private byte[] proposals = new byte[8];   // direction chosen in phase 1, or STAY
+    private int[] prevXs = new int[8];        // position before the last monster step, for interpolation
+    private int[] prevYs = new int[8];
+    private int bossIndex = -1;
+
+    // One bit per cell (row * cols + col), set while a live monster/boss stands there
+    private long[] occupancy = new long[0];
+    private int occupancyCols = 0;
+
+    // Bucket grid: doubly linked entity lists per bucket, -1 terminated
+    private int[] bucketHead = new int[0];
+    private int bucketCols = 0;
+    private int[] bucketNext = new int[8];
+    private int[] bucketPrev = new int[8];
+
+    public MonsterManager(GameSession game) {
         this.game = game;
     }
 
-    public void resetMonstersForLevel(int level) {
-        monsters.clear();
-        boss = null;
-        bossAlive = false;
-        char[][] maze = MazeData.getMazeClone(level);
+    // Spawns an entity for every 'M'/'B' in the session's freshly loaded maze
+    public void resetMonsters() {
+        MazeGrid maze = game.getMaze();
+        clearIndex(maze);
 
-        for (int i = 0; i < maze.length; i++) {
-            for (int j = 0; j < maze[i].length; j++) {
-                if (maze[i][j] == 'M') {
-                    monsters.add(new int[]{i, j, 2});
-                } else if (maze[i][j] == 'B') {
-                    boss = new int[]{i, j, 2};
-                    bossAlive = true;
+        for (int i = 0; i < maze.getRows(); i++) {
+            for (int j = 0; j < occupancyCols; j++) {
+                char c = maze.get(i, j);
+                if (c == 'M') {
+                    spawn(i, j, TYPE_MONSTER);
+                } else if (c == 'B') {
+                    bossIndex = spawn(i, j, TYPE_BOSS);
                 }
             }
         }
 
-        char[][] gm = game.getMaze();
-        if (gm != null) {
-            for (int[] m : monsters) {
-                if (gm[m[0]][m[1]] != 'A' && gm[m[0]][m[1]] != 'S' && gm[m[0]][m[1]] != 'C' && gm[m[0]][m[1]] != 'E') {
-                    gm[m[0]][m[1]] = 'M';
-                }
-            }
-            if (bossAlive && boss != null) {
-                gm[boss[0]][boss[1]] = 'B';
+    }
+
+    private void clearIndex(MazeGrid maze) {
+        count = 0;
+        bossIndex = -1;
+        occupancyCols = maze.getCols();
+        occupancy = new long[(int) (((long) maze.getRows() * occupancyCols + 63) >>> 6)];
+        bucketCols = (occupancyCols + BUCKET_SIZE - 1) >> BUCKET_SHIFT;
+        bucketHead = new int[((maze.getRows() + BUCKET_SIZE - 1) >> BUCKET_SHIFT) * bucketCols];
+        Arrays.fill(bucketHead, -1);
+    }
+
+    private int spawn(int x, int y, byte type) {
+        if (count == xs.length) {
+            int cap = count * 2;
+            xs = Arrays.copyOf(xs, cap);
+            ys = Arrays.copyOf(ys, cap);
+            facings = Arrays.copyOf(facings, cap);
+            types = Arrays.copyOf(types, cap);
+            alive = Arrays.copyOf(alive, cap);
+            proposals = Arrays.copyOf(proposals, cap);
+            prevXs = Arrays.copyOf(prevXs, cap);
+            prevYs = Arrays.copyOf(prevYs, cap);
+            bucketNext = Arrays.copyOf(bucketNext, cap);
+            bucketPrev = Arrays.copyOf(bucketPrev, cap);
+        }
+        xs[count] = prevXs[count] = x;
+        ys[count] = prevYs[count] = y;
+        facings[count] = 2;
+        types[count] = type;
+        alive[count] = true;
+        occupy(x, y);
+        link(count);
+        return count++;
+    }
+
+    // Puts back entities captured by a snapshot, exactly as they were
+    public void restore(GameSnapshot s) {
+        clearIndex(game.getMaze());
+
+        for (int e = 0; e < s.entityCount(); e++) {
+            int index = spawn(s.entityX()[e], s.entityY()[e], s.entityType()[e]);
+            facings[index] = s.entityFacing()[e];
+            if (types[index] == TYPE_BOSS) bossIndex = index;
+            if (!s.entityAlive()[e]) {
+                alive[index] = false;
+                vacate(xs[index], ys[index]);
             }
         }
     }
 
+    // Which pool proposes on big levels, null for one pass on the caller's thread; the result must be
+    // the same either way (MonsterManagerTest checks that)
+    void setPool(ForkJoinPool pool) { this.pool = pool; }
+
+    // Seeds the per-entity random streams; the same seed replays the same monster moves
+    public void setSeed(long seed) { this.seed = seed; }
+    public long getSeed() { return seed; }
+
+    /* --------------------------------------------------------------
+       MONSTER TURN – two phases, so big levels can use every core
+         1. propose: each entity picks a direction from the state at
+            the start of the tick only (parallel over partitions)
+         2. resolve: in id order, a move goes ahead unless a lower id
+            already claimed the target; all grid writes happen here
+       A move may only target a cell that was free at the start of the
+       tick, and every random draw depends only on (seed, tick, id),
+       so the result is identical however the work is split.
+       -------------------------------------------------------------- */
     public void moveMonsters() {
         try {
-            char[][] maze = game.getMaze();
+            MazeGrid maze = game.getMaze();
             if (maze == null) return;
-            int[][] directions = {{-1, 0, 0}, {0, 1, 1}, {1, 0, 2}, {0, -1, 3}};
+            flowField.update(maze, game.getPlayerX(), game.getPlayerY());
+
+            PerfEvents.MonsterStep event = new PerfEvents.MonsterStep();
+            event.begin();
+            long tick = game.getTickCount();
+            boolean parallel = count >= PARALLEL_THRESHOLD && pool != null;
+            if (!parallel) {
+                propose(maze, tick, 0, count);
+            } else {
+                pool.invoke(new ProposeTask(maze, tick, 0, count));
+            }
+            resolve(maze);
+            if (event.shouldCommit()) {
+                event.entities = count;
+                event.parallel = parallel;
+                event.commit();
+            }
 
-            for (int[] monster : monsters) {
-                if (maze[monster[0]][monster[1]] == 'M') maze[monster[0]][monster[1]] = '.';
+        } catch (Exception e) {
+            game.log("Error moving monsters: " + e.getMessage() + "\n");
+        }
+    }
 
-                int[] dir = directions[random.nextInt(directions.length)];
-                int newX = monster[0] + dir[0];
-                int newY = monster[1] + dir[1];
-                int newFacing = dir[2];
+    // Phase 1: reads shared state, writes only proposals[from, to)
+    private void propose(MazeGrid maze, long tick, int from, int to) {
+        for (int e = from; e < to; e++) {
+            proposals[e] = STAY;
+            if (!alive[e]) continue;
+            int x = xs[e], y = ys[e];
 
-                if (isValidMove(maze, newX, newY) && !isMonsterAt(newX, newY) && !isPlayerAt(newX, newY) && maze[newX][newY] != 'G') {
-                    monster[0] = newX;
-                    monster[1] = newY;
-                    monster[2] = newFacing;
-                }
-                if (maze[monster[0]][monster[1]] != 'A' && maze[monster[0]][monster[1]] != 'S' && maze[monster[0]][monster[1]] != 'C' && maze[monster[0]][monster[1]] != 'E') {
-                    maze[monster[0]][monster[1]] = 'M';
-                }
+            int dir = (int) (GameRandom.mix(seed + tick * 0x9E3779B97F4A7C15L + e * 0xC2B2AE3D27D4EB4FL) >>> 62);
+            int chase = flowField.directionFrom(x, y, types[e] == TYPE_BOSS ? BOSS_CHASE_RADIUS : MONSTER_CHASE_RADIUS, dir);
+            if (chase >= 0) dir = chase;
+            int newX = x + DIR_X[dir];
+            int newY = y + DIR_Y[dir];
+
+            // A chaser may step onto the player – that is the catch, resolved by the session
+            if (isWalkable(maze, newX, newY) && !isMonsterAt(newX, newY) && (chase >= 0 || !isPlayerAt(newX, newY))) {
+                proposals[e] = (byte) dir;
             }
+        }
+    }
 
-            if (bossAlive && boss != null) {
-                if (maze[boss[0]][boss[1]] == 'B') maze[boss[0]][boss[1]] = '.';
-                int[] dir = directions[random.nextInt(directions.length)];
-                int newX = boss[0] + dir[0];
-                int newY = boss[1] + dir[1];
-                if (isValidMove(maze, newX, newY) && !isMonsterAt(newX, newY) && !isPlayerAt(newX, newY)) {
-                    boss[0] = newX; boss[1] = newY; boss[2] = dir[2];
-                }
-                if (maze[boss[0]][boss[1]] != 'A' && maze[boss[0]][boss[1]] != 'S' && maze[boss[0]][boss[1]] != 'C' && maze[boss[0]][boss[1]] != 'E') {
-                    maze[boss[0]][boss[1]] = 'B';
-                }
+    // Phase 2: single-threaded, since two tiles share each byte of the grid
+    private void resolve(MazeGrid maze) {
+        System.arraycopy(xs, 0, prevXs, 0, count);
+        System.arraycopy(ys, 0, prevYs, 0, count);
+        for (int e = 0; e < count; e++) {
+            int dir = proposals[e];
+            if (dir == STAY) continue;
+            int x = xs[e], y = ys[e];
+            int newX = x + DIR_X[dir];
+            int newY = y + DIR_Y[dir];
+            if (isMonsterAt(newX, newY)) continue;   // a lower id got there first this tick
+
+            char glyph = glyph(e);
+            if (maze.get(x, y) == glyph) maze.set(x, y, '.');
+            vacate(x, y);
+            occupy(newX, newY);
+            boolean rebucket = bucketOf(x, y) != bucketOf(newX, newY);
+            if (rebucket) unlink(e);
+            xs[e] = newX;
+            ys[e] = newY;
+            if (rebucket) link(e);
+            facings[e] = (byte) dir;
+            char c = maze.get(newX, newY);
+            if (c == 'T') game.notifyStaticTileChanged(newX, newY);
+            if (c != 'A' && c != 'S' && c != 'C' && c != 'E') {
+                maze.set(newX, newY, glyph);
             }
+            game.notifyCellChanged(x, y);
+            game.notifyCellChanged(newX, newY);
+        }
+    }
 
-        } catch (Exception e) {
-            game.getStoryManager().appendToLog("Error moving monsters: " + e.getMessage() + "\n");
+    private final class ProposeTask extends RecursiveAction {
+        private final MazeGrid maze;
+        private final long tick;
+        private final int from, to;
+
+        ProposeTask(MazeGrid maze, long tick, int from, int to) {
+            this.maze = maze;
+            this.tick = tick;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARTITION_SIZE) {
+                propose(maze, tick, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ProposeTask(maze, tick, from, mid), new ProposeTask(maze, tick, mid, to));
         }
     }
 
-    private boolean isValidMove(char[][] maze, int x, int y) {
-        return x >= 0 && x < maze.length && y >= 0 && y < maze[0].length && maze[x][y] != '#' && maze[x][y] != 'W' && maze[x][y] != 'G';
+    private char glyph(int e) {
+        return types[e] == TYPE_BOSS ? 'B' : 'M';
+    }
+
+    // Cells monsters (and the flow field) may walk on
+    public static boolean isWalkable(MazeGrid maze, int x, int y) {
+        if (!maze.inBounds(x, y)) return false;
+        char c = maze.get(x, y);
+        return c != '#' && c != 'W' && c != 'G';
     }
 
     public boolean isMonsterAt(int x, int y) {
-        for (int[] m : monsters) if (m[0] == x && m[1] == y) return true;
-        return bossAlive && boss != null && boss[0] == x && boss[1] == y;
+        if (x < 0 || y < 0 || y >= occupancyCols) return false;
+        long cell = (long) x * occupancyCols + y;
+        int word = (int) (cell >>> 6);
+        return word < occupancy.length && (occupancy[word] & (1L << cell)) != 0;
+    }
+
+    private void occupy(int x, int y) {
+        long cell = (long) x * occupancyCols + y;
+        occupancy[(int) (cell >>> 6)] |= 1L << cell;
+    }
+
+    private void vacate(int x, int y) {
+        long cell = (long) x * occupancyCols + y;
+        occupancy[(int) (cell >>> 6)] &= ~(1L << cell);
+    }
+
+    private int bucketOf(int x, int y) {
+        return (x >> BUCKET_SHIFT) * bucketCols + (y >> BUCKET_SHIFT);
+    }
+
+    private void link(int e) {
+        int b = bucketOf(xs[e], ys[e]);
+        bucketPrev[e] = -1;
+        bucketNext[e] = bucketHead[b];
+        if (bucketHead[b] >= 0) bucketPrev[bucketHead[b]] = e;
+        bucketHead[b] = e;
+    }
+
+    private void unlink(int e) {
+        if (bucketPrev[e] >= 0) bucketNext[bucketPrev[e]] = bucketNext[e];
+        else bucketHead[bucketOf(xs[e], ys[e])] = bucketNext[e];
+        if (bucketNext[e] >= 0) bucketPrev[bucketNext[e]] = bucketPrev[e];
     }
 
     public boolean isPlayerAt(int x, int y) {
         return x == game.getPlayerX() && y == game.getPlayerY();
     }
 
-    public static boolean isTrapAt(char[][] maze, int x, int y) {
-        return x >= 0 && x < maze.length && y >= 0 && y < maze[0].length && maze[x][y] == 'X';
+    public static boolean isTrapAt(MazeGrid maze, int x, int y) {
+        return maze.inBounds(x, y) && maze.get(x, y) == 'X';
     }
 
+    public FlowField getFlowField() { return flowField; }
+
     public int[] getBossPosition() {
-        return bossAlive ? boss : null;
+        return bossIndex >= 0 && alive[bossIndex]
+            ? new int[]{xs[bossIndex], ys[bossIndex], facings[bossIndex]} : null;
     }
 
     public void killBoss() {
-        bossAlive = false;
-        if (boss != null) {
-            char[][] maze = game.getMaze();
-            if (maze != null) maze[boss[0]][boss[1]] = '.';
-        }
+        if (bossIndex < 0 || !alive[bossIndex]) return;
+        alive[bossIndex] = false;
+        int x = xs[bossIndex], y = ys[bossIndex];
+        vacate(x, y);
+        MazeGrid maze = game.getMaze();
+        if (maze != null && maze.get(x, y) == 'B') maze.set(x, y, '.');
+        game.notifyCellChanged(x, y);
+    }
+
+    /* --------------------------------------------------------------
+       ENTITY ACCESS – index based, for renderers and persistence
+       -------------------------------------------------------------- */
+    public int getEntityCount() { return count; }
+    public int getX(int e) { return xs[e]; }
+    public int getY(int e) { return ys[e]; }
+    public int getFacing(int e) { return facings[e]; }
+    public byte getType(int e) { return types[e]; }
+    public boolean isAlive(int e) { return alive[e]; }
+    public int getPrevX(int e) { return prevXs[e]; }
+    public int getPrevY(int e) { return prevYs[e]; }
+
+    // First entity filed in bucket (row, col) – dead ones included – or -1; walk on with nextInBucket
+    public int firstInBucket(int bucketRow, int bucketCol) {
+        if (bucketRow < 0 || bucketCol < 0 || bucketCol >= bucketCols) return -1;
+        int b = bucketRow * bucketCols + bucketCol;
+        return b < bucketHead.length ? bucketHead[b] : -1;
     }
-}
\ No newline at end of file
+    public int nextInBucket(int e) { return bucketNext[e]; }
+}
@@ -0,0 +1,315 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/MusicPlayer.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* --------------------------------------------------------------
+   Streams background music into a SourceDataLine from its own
+   thread, a few KB at a time, so a long track costs the line buffer
+   plus two chunks instead of the whole decoded file.
+     - looping is gapless: at end of stream the track is reopened and
+       the same chunk keeps filling, the line never drains
+     - pause/resume stop and start the line, so playback resumes on
+       the exact frame it left off
+     - play() with another track crossfades into it over FADE_MS
+     - play() only queues the request; the writer thread opens the
+       track and the line, so a caller on the EDT never waits on the
+       decoder or the mixer
+     - stop() never waits: the writer notices it was replaced, so a
+       quick stop/play can't leave two writers on one line or track
+   All tracks are converted to 16-bit signed little-endian PCM in the
+   format of the first track, so they can be mixed sample by sample.
+   -------------------------------------------------------------- */
+public class MusicPlayer {
+    private static final int CHUNK_BYTES = 8 * 1024;
+    private static final int LINE_BUFFER_BYTES = 64 * 1024;   // ~0.4 s at 44.1 kHz stereo
+    private static final int FADE_MS = 1500;
+
+    private final Object lock = new Object();
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();   // resources that failed once are not retried
+    private Writer writer;    // the one live writer; a writer that is no longer this one exits
+    private boolean paused;
+
+    // Queues 'resource' to crossfade from whatever is playing; no-op if it already plays or is queued
+    public void play(String resource) {
+        if (resource == null || missing.contains(resource)) return;
+        synchronized (lock) {
+            Writer w = writer;
+            if (w != null && resource.equals(w.latest())) return;
+            if (w == null) {
+                w = writer = new Writer();
+                Thread thread = new Thread(w, "music");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            w.requested = resource;   // a later request replaces one the writer hasn't opened yet
+        }
+    }
+
+    public void pause() {
+        synchronized (lock) {
+            if (writer == null || paused) return;
+            paused = true;
+            if (writer.line != null) writer.line.stop();   // the writer blocks on the full buffer; nothing is lost
+        }
+    }
+
+    public void resume() {
+        synchronized (lock) {
+            if (writer == null || !paused) return;
+            paused = false;
+            if (writer.line != null) writer.line.start();
+        }
+    }
+
+    // Only signals: the writer sees it was replaced, then closes its line and its tracks
+    public void stop() {
+        synchronized (lock) {
+            Writer w = writer;
+            writer = null;
+            paused = false;
+            if (w != null && w.line != null) w.line.close();   // releases a writer blocked in write()
+        }
+    }
+
+    public boolean isPlaying() {
+        synchronized (lock) { return writer != null && !paused; }
+    }
+
+    /* --------------------------------------------------------------
+       WRITER THREAD – one per play()-from-silence. It opens its line
+       and every track it is asked for, and is the only thread that
+       reads, rewinds or closes them, so a track is never closed
+       mid-read.
+       -------------------------------------------------------------- */
+    private static SourceDataLine openLine(AudioFormat format) {
+        try {
+            SourceDataLine line = AudioSystem.getSourceDataLine(format);
+            line.open(format, LINE_BUFFER_BYTES);
+            return line;
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("Music unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private final class Writer implements Runnable {
+        // Only this thread touches these; the first track opened decides the format
+        AudioFormat format;
+        int frameSize;
+        // Guarded by 'lock'; play() queues 'requested', only this writer opens and closes tracks
+        SourceDataLine line;
+        String requested;
+        Track current, next;
+        long fadeFrames, fadePos;
+        final List<Track> retired = new ArrayList<>();
+
+        // The track this writer will end up on once everything queued has been opened
+        String latest() {
+            if (requested != null) return requested;
+            if (next != null) return next.resource;
+            return current != null ? current.resource : null;
+        }
+
+        @Override
+        public void run() {
+            byte[] out = new byte[CHUNK_BYTES];
+            byte[] in = new byte[CHUNK_BYTES];
+            List<Track> done = new ArrayList<>();
+            try {
+                while (true) {
+                    String open;
+                    Track from, to;
+                    long fadeStart, fadeLength;
+                    synchronized (lock) {
+                        if (writer != this) return;
+                        done.addAll(retired);
+                        retired.clear();
+                        open = requested;
+                        requested = null;
+                        from = current;
+                        to = next;
+                        fadeStart = fadePos;
+                        fadeLength = fadeFrames;
+                    }
+                    for (Track t : done) t.close();
+                    done.clear();
+                    if (open != null) {
+                        if (!start(open)) return;
+                        continue;
+                    }
+
+                    int n = fill(from, out, frameSize);
+                    if (to != null) {
+                        fill(to, in, frameSize);
+                        mix(out, in, n, frameSize, fadeStart, fadeLength);
+                        synchronized (lock) {
+                            if (next == to) {
+                                fadePos += n / frameSize;
+                                if (fadePos >= fadeFrames) {   // fade finished: the new track takes over
+                                    done.add(current);
+                                    current = next;
+                                    next = null;
+                                }
+                            }
+                        }
+                    }
+                    line.write(out, 0, n);
+                }
+            } finally {
+                if (line != null) line.close();
+                synchronized (lock) {
+                    if (writer == this) writer = null;   // died on an error: the next play() starts afresh
+                    done.addAll(retired);
+                    retired.clear();
+                    if (current != null) done.add(current);
+                    if (next != null) done.add(next);
+                    current = next = null;
+                }
+                for (Track t : done) t.close();
+            }
+        }
+
+        // Opens 'resource' (and the line, on the first track), then plays it or fades into it; false to exit
+        private boolean start(String resource) {
+            Track track = openTrack(resource, format);
+            if (track != null && line == null) {
+                format = track.format;
+                frameSize = format.getFrameSize();
+                SourceDataLine opened = openLine(format);
+                if (opened == null) {
+                    track.close();
+                    track = null;
+                } else {
+                    synchronized (lock) {
+                        line = opened;
+                        if (writer == this && !paused) opened.start();
+                    }
+                }
+            }
+            synchronized (lock) {
+                if (writer != this) {
+                    if (track != null) retired.add(track);   // closed on the way out
+                    return false;
+                }
+                if (track == null) {
+                    if (current != null || requested != null) return true;
+                    writer = null;   // nothing to play: exit before another play() can queue here
+                    return false;
+                }
+                if (current == null) {
+                    current = track;
+                } else {
+                    if (next != null) retired.add(next);
+                    next = track;
+                    fadePos = 0;
+                    fadeFrames = (long) (format.getFrameRate() * FADE_MS / 1000);
+                }
+                return true;
+            }
+        }
+    }
+
+    // Fills 'buf' completely, reopening the track at end of stream so the loop has no gap
+    private int fill(Track track, byte[] buf, int frameSize) {
+        int len = buf.length - buf.length % frameSize;
+        int filled = 0;
+        boolean rewound = false;
+        while (filled < len) {
+            int r = track.read(buf, filled, len - filled);
+            if (r > 0) {
+                filled += r;
+                rewound = false;
+            } else if (!rewound && track.rewind()) {
+                rewound = true;
+            } else {                 // empty or broken track: pad with silence
+                Arrays.fill(buf, filled, len, (byte) 0);
+                filled = len;
+            }
+        }
+        return len;
+    }
+
+    // Linear crossfade of 16-bit LE samples: 'out' fades out while 'in' fades in
+    private static void mix(byte[] out, byte[] in, int n, int frameSize, long fadeStart, long fadeLength) {
+        int channels = frameSize / 2;
+        for (int f = 0, i = 0; i < n; f++) {
+            float t = Math.min(1f, (fadeStart + f) / (float) fadeLength);
+            for (int c = 0; c < channels; c++, i += 2) {
+                int a = (short) ((out[i] & 0xFF) | (out[i + 1] << 8));
+                int b = (short) ((in[i] & 0xFF) | (in[i + 1] << 8));
+                int s = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(a * (1 - t) + b * t)));
+                out[i] = (byte) s;
+                out[i + 1] = (byte) (s >> 8);
+            }
+        }
+    }
+
+    /* --------------------------------------------------------------
+       TRACKS
+       -------------------------------------------------------------- */
+    private Track openTrack(String resource, AudioFormat format) {
+        if (missing.contains(resource)) return null;
+        Track track = new Track(resource, format);
+        if (!track.rewind()) {
+            missing.add(resource);
+            return null;
+        }
+        return track;
+    }
+
+    private static final class Track {
+        final String resource;
+        AudioFormat format;                 // output format; null until the first open decides it
+        private AudioInputStream stream;    // only touched by the thread that owns the track
+
+        Track(String resource, AudioFormat format) {
+            this.resource = resource;
+            this.format = format;
+        }
+
+        int read(byte[] buf, int off, int len) {
+            try {
+                return stream != null ? stream.read(buf, off, len) : -1;
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+        // (Re)opens the stream at the first frame, in the player's output format
+        boolean rewind() {
+            close();
+            InputStream is = MusicPlayer.class.getResourceAsStream(resource);
+            if (is == null) return false;
+            try {
+                AudioInputStream src = AudioSystem.getAudioInputStream(new BufferedInputStream(is));
+                AudioFormat f = src.getFormat();
+                AudioFormat pcm = new AudioFormat(f.getSampleRate(), 16, f.getChannels(), true, false);
+                AudioInputStream s = pcm.matches(f) ? src : AudioSystem.getAudioInputStream(pcm, src);
+                if (format == null) format = pcm;
+                if (!format.matches(pcm)) s = AudioSystem.getAudioInputStream(format, s);
+                stream = s;
+                return true;
+            } catch (Exception e) {
+                System.err.println("Error opening music " + resource + ": " + e.getMessage());
+                try { is.close(); } catch (IOException ignored) { }
+                return false;
+            }
+        }
+
+        void close() {
+            AudioInputStream s = stream;
+            stream = null;
+            if (s == null) return;
+            try { s.close(); } catch (IOException ignored) { }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/PerfEvents.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/* --------------------------------------------------------------
+   Custom Flight Recorder events. They cost next to nothing unless a
+   recording is running, e.g.
+     java -XX:StartFlightRecording=filename=maze.jfr ...
+   and then show up under "Maze" in JDK Mission Control or
+   `jfr print --events maze.* maze.jfr`.
+   -------------------------------------------------------------- */
+public final class PerfEvents {
+    private PerfEvents() { }
+
+    @Name("maze.Tick")
+    @Label("Simulation Tick")
+    @Category("Maze")
+    @StackTrace(false)
+    public static class Tick extends Event {
+        @Label("Tick") public long tick;
+        @Label("Monster Step") public boolean monsterStep;
+    }
+
+    @Name("maze.MonsterStep")
+    @Label("Monster Step")
+    @Category("Maze")
+    @StackTrace(false)
+    public static class MonsterStep extends Event {
+        @Label("Entities") public int entities;
+        @Label("Parallel") public boolean parallel;
+    }
+
+    @Name("maze.Render")
+    @Label("Board Render")
+    @Category("Maze")
+    @StackTrace(false)
+    public static class Render extends Event {
+        @Label("Clip Width") public int clipWidth;
+        @Label("Clip Height") public int clipHeight;
+        @Label("Cached Chunks") public int cachedChunks;
+    }
+
+    @Name("maze.Save")
+    @Label("Save Game")
+    @Category("Maze")
+    public static class Save extends Event {
+        @Label("File") public String file;
+        @Label("Size") @DataAmount public long bytes;
+    }
+
+    @Name("maze.Load")
+    @Label("Load Game")
+    @Category("Maze")
+    public static class Load extends Event {
+        @Label("File") public String file;
+        @Label("Size") @DataAmount public long bytes;
+    }
+
+    @Name("maze.AudioDecode")
+    @Label("Audio Decode")
+    @Category("Maze")
+    @StackTrace(false)
+    public static class AudioDecode extends Event {
+        @Label("Sound") public String sound;
+        @Label("PCM Size") @DataAmount public long bytes;
+    }
+}
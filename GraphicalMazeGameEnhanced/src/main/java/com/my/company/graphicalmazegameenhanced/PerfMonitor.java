@@ -0,0 +1,70 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/PerfMonitor.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.lang.management.ManagementFactory;
+
+/* --------------------------------------------------------------
+   Rolling performance summary for the F3 overlay: frame rate, tick
+   and render latency percentiles, EDT allocation rate and entity
+   counts. Everything is recorded and read on the EDT; each second
+   the window is summarised into overlay lines and the histograms
+   start over, so the numbers always describe the last second.
+   -------------------------------------------------------------- */
+public class PerfMonitor {
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final GameSession session;
+    private final LatencyHistogram ticks = new LatencyHistogram();
+    private final LatencyHistogram renders = new LatencyHistogram();
+    private final com.sun.management.ThreadMXBean threads;
+
+    private long windowStart = System.nanoTime();
+    private long windowAllocStart = -1;
+    private int frames = 0;
+    private String[] lines = {"collecting..."};
+
+    public PerfMonitor(GameSession session) {
+        this.session = session;
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        threads = bean instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported() ? sun : null;
+        if (threads != null) threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public void recordTick(long nanos) { ticks.record(nanos); }
+    public void recordRender(long nanos) { renders.record(nanos); }
+    public void recordFrame() { frames++; }
+
+    // Closes the window once a second has passed; true when the overlay text changed
+    public boolean roll(long nowNanos) {
+        long elapsed = nowNanos - windowStart;
+        if (elapsed < WINDOW_NANOS) return false;
+
+        long alloc = threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+        String allocRate = alloc >= 0 && windowAllocStart >= 0
+            ? String.format("%.1f KB/s", (alloc - windowAllocStart) / 1024.0 * 1e9 / elapsed) : "n/a";
+        windowAllocStart = alloc;
+
+        MonsterManager monsters = session.getMonsterManager();
+        int living = 0;
+        for (int e = 0; e < monsters.getEntityCount(); e++) if (monsters.isAlive(e)) living++;
+
+        lines = new String[] {
+            String.format("FPS %.0f", frames * 1e9 / elapsed),
+            String.format("tick p50 %s  p99 %s", micros(ticks.percentile(50)), micros(ticks.percentile(99))),
+            String.format("draw p50 %s  p99 %s", micros(renders.percentile(50)), micros(renders.percentile(99))),
+            "EDT alloc " + allocRate,
+            "entities " + living + "/" + monsters.getEntityCount() + "  maze " + session.getRows() + "x" + session.getCols(),
+        };
+        ticks.reset();
+        renders.reset();
+        frames = 0;
+        windowStart = nowNanos;
+        return true;
+    }
+
+    public String[] getOverlayLines() { return lines; }
+
+    private static String micros(long nanos) {
+        return String.format(nanos < 10_000 ? "%.1fus" : "%.0fus", nanos / 1000.0);
+    }
+}
@@ -0,0 +1,134 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/ReplayEngine.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/* --------------------------------------------------------------
+   Re-runs InputRecorder files headlessly, as fast as the CPU allows:
+   no loop timer, no view, no sound. Each input is applied after the
+   same tick it was recorded at, and the final GameSession.stateHash()
+   must match the one stored in the recording.
+
+   A campaign run that reaches the next level loads it from the level
+   pack, so replay with the pack it was recorded with.
+
+   Command line: replays every file given, and every *.clrp under
+   the directories given, in parallel; exits 1 if any replay fails.
+   Takes the same -Dmaze.levels=<pack> as the game.
+     java -cp <game jar> com.mycompany.graphicalmazegameenhanced.ReplayEngine recordings/
+   -------------------------------------------------------------- */
+public final class ReplayEngine {
+    private static final GameInput[] INPUTS = GameInput.values();
+
+    public record Result(Path file, long ticks, int inputs, long nanos,
+                         boolean hasExpectedHash, long expectedHash, long actualHash) {
+        public boolean matches() { return hasExpectedHash && expectedHash == actualHash; }
+        public double ticksPerSecond() { return nanos > 0 ? ticks * 1e9 / nanos : 0; }
+    }
+
+    private ReplayEngine() {}
+
+    public static Result replay(Path file) throws IOException {
+        return replay(file, MazeData.BUILT_IN);
+    }
+
+    public static Result replay(Path file, LevelPack pack) throws IOException {
+        try (DataInputStream in = InputRecorder.open(file)) {
+            if (in.readInt() != InputRecorder.MAGIC) throw new IOException("Not a recording");
+            int version = in.readInt();
+            if (version != InputRecorder.VERSION) throw new IOException("Unsupported recording version " + version);
+            int ticksPerSecond = in.readInt();
+            byte[] start = new byte[in.readInt()];
+            in.readFully(start);
+
+            long started = System.nanoTime();
+            GameSession session = new GameSession(ticksPerSecond);
+            session.setLevelPack(pack);
+            session.restore(SaveLoadManager.decode(ByteBuffer.wrap(start)));
+            long firstTick = session.getTickCount(), tick = firstTick;
+            int inputs = 0;
+            while (true) {
+                long record = InputRecorder.readVarLong(in);
+                if (record < 0) {   // cut short: no end record, nothing to check against
+                    return new Result(file, session.getTickCount() - firstTick, inputs,
+                                      System.nanoTime() - started, false, 0, session.stateHash());
+                }
+                int code = (int) (record & 7);
+                tick += record >>> 3;
+                runUntil(session, tick);
+                if (code == InputRecorder.CODE_END) {
+                    long expected = in.readLong();
+                    return new Result(file, session.getTickCount() - firstTick, inputs,
+                                      System.nanoTime() - started, true, expected, session.stateHash());
+                }
+                if (code >= INPUTS.length) throw new IOException("Recording corrupted");
+                session.step(INPUTS[code]);
+                inputs++;
+            }
+        }
+    }
+
+    // tick() stops counting once the game is over, so stop there too
+    private static void runUntil(GameSession session, long tick) {
+        while (session.getTickCount() < tick && !session.isOver() && !session.isWon()) session.tick();
+    }
+
+    /* --------------------------------------------------------------
+       COMMAND LINE
+       -------------------------------------------------------------- */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayEngine <recording.clrp | directory>...");
+            System.exit(2);
+        }
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    walk.filter(p -> p.toString().endsWith(".clrp")).sorted().forEach(files::add);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+
+        String packFile = System.getProperty("maze.levels");
+        LevelPack pack = packFile != null ? LevelPack.open(Paths.get(packFile)) : MazeData.BUILT_IN;
+
+        long wallStart = System.nanoTime();
+        List<String> lines = files.parallelStream().map(file -> describe(file, pack)).toList();
+        long wall = System.nanoTime() - wallStart;
+
+        int failed = 0;
+        for (String line : lines) {
+            System.out.println(line);
+            if (line.startsWith("FAIL") || line.startsWith("ERROR")) failed++;
+        }
+        System.out.printf("%d recordings, %d failed, %.1f s%n", files.size(), failed, wall / 1e9);
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    private static String describe(Path file, LevelPack pack) {
+        try {
+            Result r = replay(file, pack);
+            String status = !r.hasExpectedHash() ? "NOEND" : r.matches() ? "OK" : "FAIL";
+            String line = String.format("%-5s %s  %d ticks, %d inputs, %.1f ms (%.0f ticks/s)",
+                                        status, file, r.ticks(), r.inputs(), r.nanos() / 1e6, r.ticksPerSecond());
+            if (r.hasExpectedHash() && !r.matches()) {
+                line += String.format("  expected %016x, got %016x", r.expectedHash(), r.actualHash());
+            }
+            return line;
+        } catch (IOException | RuntimeException ex) {
+            return "ERROR " + file + "  " + ex.getMessage();
+        }
+    }
+}
@@ -2,79 +2,277 @@
 package com.mycompany.graphicalmazegameenhanced;
 
 import javax.swing.*;
-import java.io.*;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/* --------------------------------------------------------------
+   Binary save file, big-endian:
+     int magic 'CLSV' | int version
+     then sections, each: int tag | int length | 'length' bytes
+       STAT  level, flags, endurance seed/depth, player, sage,
+             story stage, ticks, session seed, objective (UTF-8)
+       MAZE  int rows | int cols | packed tiles (see MazeGrid)
+       ENTS  int count | per entity: int x, int y, byte facing,
+             byte type, byte alive
+       SEEN  int word count | fog-of-war bits, one long per 64 cells
+             (see FieldOfView); optional, older saves load with
+             nothing explored
+   Unknown sections are skipped, so newer files with extra sections
+   still load. decode() refuses anything the game could not have
+   written (positions off the board, bad facings or entity types,
+   explored bits past the last cell), so restore never sees it. Saves go to a temp file that is fsynced and then
+   atomically renamed over the old save, so a crash mid-save never
+   leaves a half-written file behind.
+
+   Disk work runs on a single daemon thread, in request order, so the
+   EDT only pays for the snapshot and results arrive as log lines.
+   encode()/decode() are the same format in memory, which is how
+   InputRecorder embeds its starting state.
+
+   Version 2 stores the session seed where version 1 had the monster
+   seed; version 1 files are refused rather than replayed wrongly.
+   -------------------------------------------------------------- */
 public class SaveLoadManager {
-    private static final String SAVE_FILE = "maze_save.txt";
-
-    public void saveGame(GraphicalMazeGameEnhanced game) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(SAVE_FILE))) {
-            writer.println(game.getCurrentLevel());
-            writer.println(game.getPlayerX() + "," + game.getPlayerY() + "," + game.getPlayerFacing());
-            writer.println(game.hasObjectiveItem());
-            writer.println(0);
-
-            char[][] maze = game.getMaze();
-            int countM = 0;
-            if (maze != null) {
-                for (char[] row : maze)
-                    for (char c : row)
-                        if (c == 'M' || c == 'B') countM++;
+    private static final Path SAVE_FILE = Paths.get("maze_save.dat");
+
+    private static final int MAGIC = 0x434C5356;   // "CLSV"
+    private static final int VERSION = 2;
+    private static final int TAG_STAT = 0x53544154; // "STAT"
+    private static final int TAG_MAZE = 0x4D415A45; // "MAZE"
+    private static final int TAG_ENTS = 0x454E5453; // "ENTS"
+    private static final int TAG_SEEN = 0x5345454E; // "SEEN"
+    private static final int ENTITY_BYTES = 11;
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "save-io");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Call on the EDT: snapshots now, writes in the background
+    public void saveGame(GameSession game) {
+        GameSnapshot snapshot;
+        try {
+            snapshot = game.snapshot();
+        } catch (IllegalStateException ex) {
+            game.log("Error saving: " + ex.getMessage() + "\n");
+            return;
+        }
+        game.log("Saving...\n");
+        io.execute(() -> {
+            try {
+                write(SAVE_FILE, snapshot);
+                SwingUtilities.invokeLater(() -> game.log("Game saved successfully!\n"));
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() -> game.log("Error saving: " + ex.getMessage() + "\n"));
             }
-            writer.println(countM);
+        });
+    }
 
-            if (maze != null) {
-                for (int i = 0; i < maze.length; i++) {
-                    for (int j = 0; j < maze[i].length; j++) {
-                        if (maze[i][j] == 'M' || maze[i][j] == 'B')
-                            writer.println(i + "," + j + ",2");
+    // Call on the EDT: reads and validates in the background (see decode), restores back on the EDT.
+    // If restoring still fails the session goes back to where it was, and either way it ends in a log line.
+    public void loadGame(GameSession game) {
+        io.execute(() -> {
+            try {
+                GameSnapshot snapshot = read(SAVE_FILE);
+                SwingUtilities.invokeLater(() -> {
+                    GameSnapshot previous = game.getMaze() != null ? game.snapshot() : null;
+                    try {
+                        game.restore(snapshot);
+                        game.log("Game loaded. Level: " + snapshot.level() + ".\n");
+                    } catch (RuntimeException ex) {
+                        if (previous != null) game.restore(previous);
+                        game.log("Load failed: " + ex.getMessage() + "\n");
                     }
-                }
+                });
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() -> game.log("Load failed: " + ex.getMessage() + "\n"));
             }
+        });
+    }
 
-            if (maze != null) {
-                for (char[] row : maze) {
-                    for (char c : row) writer.print(c);
-                    writer.println();
-                }
+    public boolean hasSaveFile() {
+        return Files.exists(SAVE_FILE);
+    }
+
+    /* --------------------------------------------------------------
+       WRITE
+       -------------------------------------------------------------- */
+    public static void write(Path file, GameSnapshot s) throws IOException {
+        PerfEvents.Save event = new PerfEvents.Save();
+        event.begin();
+        ByteBuffer[] parts = encode(s);
+        long bytes = 0;
+        for (ByteBuffer part : parts) bytes += part.remaining();
+
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (parts[parts.length - 1].hasRemaining()) ch.write(parts);
+                ch.force(true);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
             }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        if (event.shouldCommit()) {
+            event.file = file.toString();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    // The whole file as buffers ready for a gathering write; the maze is wrapped, not copied
+    public static ByteBuffer[] encode(GameSnapshot s) {
+        byte[] objective = s.currentObjective().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer stat = ByteBuffer.allocate(16 + 4 + 1 + 8 + 4 + 6 * 4 + 8 + 8 + 4 + objective.length);
+        stat.putInt(MAGIC).putInt(VERSION);
+        stat.putInt(TAG_STAT).putInt(stat.capacity() - 16);
+        stat.putInt(s.level())
+            .put((byte) ((s.endurance() ? 1 : 0) | (s.hasObjectiveItem() ? 2 : 0)))
+            .putLong(s.enduranceSeed()).putInt(s.enduranceDepth())
+            .putInt(s.playerX()).putInt(s.playerY()).putInt(s.playerFacing())
+            .putInt(s.sageX()).putInt(s.sageY()).putInt(s.sageInteractionStage())
+            .putLong(s.tickCount()).putLong(s.seed())
+            .putInt(objective.length).put(objective);
 
-            writer.println("Saved Game");
-            JOptionPane.showMessageDialog(null, "Game saved successfully!");
-        } catch (IOException ex) {
-            JOptionPane.showMessageDialog(null, "Error saving: " + ex.getMessage());
+        ByteBuffer mazeHeader = ByteBuffer.allocate(16);
+        mazeHeader.putInt(TAG_MAZE).putInt(8 + s.packedMaze().length).putInt(s.rows()).putInt(s.cols());
+
+        ByteBuffer ents = ByteBuffer.allocate(12 + s.entityCount() * ENTITY_BYTES);
+        ents.putInt(TAG_ENTS).putInt(ents.capacity() - 8).putInt(s.entityCount());
+        for (int e = 0; e < s.entityCount(); e++) {
+            ents.putInt(s.entityX()[e]).putInt(s.entityY()[e])
+                .put(s.entityFacing()[e]).put(s.entityType()[e]).put((byte) (s.entityAlive()[e] ? 1 : 0));
+        }
+
+        long[] explored = s.explored() != null ? s.explored() : new long[0];
+        ByteBuffer seen = ByteBuffer.allocate(12 + explored.length * 8);
+        seen.putInt(TAG_SEEN).putInt(seen.capacity() - 8).putInt(explored.length);
+        for (long word : explored) seen.putLong(word);
+        return new ByteBuffer[] {stat.flip(), mazeHeader.flip(), ByteBuffer.wrap(s.packedMaze()), ents.flip(), seen.flip()};
+    }
+
+    /* --------------------------------------------------------------
+       READ
+       -------------------------------------------------------------- */
+    public static GameSnapshot read(Path file) throws IOException {
+        PerfEvents.Load event = new PerfEvents.Load();
+        event.begin();
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("Save file too large");
+            GameSnapshot snapshot = decode(readFully(ch, (int) ch.size()));
+            if (event.shouldCommit()) {
+                event.file = file.toString();
+                event.bytes = ch.size();
+                event.commit();
+            }
+            return snapshot;
         }
     }
 
-    public void loadGame(GraphicalMazeGameEnhanced game) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(SAVE_FILE))) {
-            int level = Integer.parseInt(reader.readLine());
-            String[] playerData = reader.readLine().split(",");
-            int px = Integer.parseInt(playerData[0]);
-            int py = Integer.parseInt(playerData[1]);
-            int pf = Integer.parseInt(playerData[2]);
-            boolean hasItem = Boolean.parseBoolean(reader.readLine());
-            int sageStage = Integer.parseInt(reader.readLine());
-            int monsterCount = Integer.parseInt(reader.readLine());
-            for (int i = 0; i < monsterCount; i++) reader.readLine();
-
-            char[][] maze = new char[GraphicalMazeGameEnhanced.ROWS][GraphicalMazeGameEnhanced.COLS];
-            for (int i = 0; i < GraphicalMazeGameEnhanced.ROWS; i++) {
-                String line = reader.readLine();
-                if (line == null) throw new IOException("Save file corrupted");
-                maze[i] = line.toCharArray();
+    // Parses a whole save file held in 'buf'
+    public static GameSnapshot decode(ByteBuffer buf) throws IOException {
+        try {
+            if (buf.getInt() != MAGIC) throw new IOException("Not a save file");
+            int version = buf.getInt();
+            if (version != VERSION) throw new IOException("Unsupported save version " + version);
+
+            ByteBuffer stat = null, maze = null, ents = null, seen = null;
+            while (buf.hasRemaining()) {
+                int tag = buf.getInt(), length = buf.getInt();
+                if (length < 0 || length > buf.remaining()) throw new IOException("Save file corrupted");
+                ByteBuffer section = buf.slice(buf.position(), length);
+                buf.position(buf.position() + length);
+                switch (tag) {
+                    case TAG_STAT -> stat = section;
+                    case TAG_MAZE -> maze = section;
+                    case TAG_ENTS -> ents = section;
+                    case TAG_SEEN -> seen = section;
+                    default -> { }
+                }
             }
+            if (stat == null || maze == null || ents == null) throw new IOException("Save file corrupted");
+
+            int level = stat.getInt();
+            int flags = stat.get();
+            long enduranceSeed = stat.getLong();
+            int enduranceDepth = stat.getInt();
+            int px = stat.getInt(), py = stat.getInt(), pf = stat.getInt();
+            int sx = stat.getInt(), sy = stat.getInt(), stage = stat.getInt();
+            long ticks = stat.getLong(), seed = stat.getLong();
+            byte[] objective = new byte[stat.getInt()];
+            stat.get(objective);
+
+            int rows = maze.getInt(), cols = maze.getInt();
+            byte[] packed = new byte[maze.remaining()];
+            maze.get(packed);
+            if (rows <= 0 || cols <= 0 || packed.length != MazeGrid.packedSize(rows, cols)) throw new IOException("Save file corrupted");
+            if (!inside(px, py, rows, cols) || pf < 0 || pf > 3) throw new IOException("Save file corrupted");
+            if (!inside(sx, sy, rows, cols) && (sx != -1 || sy != -1)) throw new IOException("Save file corrupted");   // -1,-1: no sage
 
-            game.loadLevel(level);
-            game.setHasObjectiveItem(hasItem);
-            JOptionPane.showMessageDialog(null, "Game loaded. Level: " + level);
-            game.getStoryManager().appendToLog("Game loaded. Level: " + level + ".\n");
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(null, "Load failed: " + ex.getMessage());
+            int n = ents.getInt();
+            if (n < 0 || ents.remaining() != (long) n * ENTITY_BYTES) throw new IOException("Save file corrupted");
+            int[] ex = new int[n], ey = new int[n];
+            byte[] facing = new byte[n], type = new byte[n];
+            boolean[] alive = new boolean[n];
+            for (int e = 0; e < n; e++) {
+                ex[e] = ents.getInt();
+                ey[e] = ents.getInt();
+                facing[e] = ents.get();
+                type[e] = ents.get();
+                alive[e] = ents.get() != 0;
+                if (!inside(ex[e], ey[e], rows, cols) || facing[e] < 0 || facing[e] > 3
+                        || (type[e] != MonsterManager.TYPE_MONSTER && type[e] != MonsterManager.TYPE_BOSS)) {
+                    throw new IOException("Save file corrupted");
+                }
+            }
+
+            long[] explored = null;
+            if (seen != null) {
+                int words = seen.getInt();
+                if (words != FieldOfView.exploredWords(rows, cols) || seen.remaining() != words * 8) throw new IOException("Save file corrupted");
+                explored = new long[words];
+                seen.asLongBuffer().get(explored);
+                int used = (int) ((long) rows * cols & 63);   // bits in use in the last word, 0 = all
+                if (used != 0 && explored[words - 1] >>> used != 0) throw new IOException("Save file corrupted");
+            }
+
+            return new GameSnapshot(level, (flags & 1) != 0, enduranceSeed, enduranceDepth,
+                                    px, py, pf, sx, sy, (flags & 2) != 0, stage,
+                                    new String(objective, StandardCharsets.UTF_8), ticks, seed,
+                                    rows, cols, packed, n, ex, ey, facing, type, alive, explored);
+        } catch (BufferUnderflowException ex) {
+            throw new IOException("Save file corrupted", ex);
         }
     }
 
-    public boolean hasSaveFile() {
-        return new File(SAVE_FILE).exists();
+    private static boolean inside(int x, int y, int rows, int cols) {
+        return x >= 0 && x < rows && y >= 0 && y < cols;
+    }
+
+    private static ByteBuffer readFully(FileChannel ch, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (ch.read(buf) < 0) throw new EOFException("Save file truncated");
+        }
+        return buf.flip();
     }
-}
\ No newline at end of file
+}
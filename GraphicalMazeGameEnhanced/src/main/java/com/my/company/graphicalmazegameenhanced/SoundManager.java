@@ -1,15 +1,30 @@
 package com.mycompany.graphicalmazegameenhanced;
 
 import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.awt.Toolkit;
 
 public class SoundManager {
+    // At most this many event lines are open at once, whatever happens in game
+    private static final int MAX_VOICES = 8;
+    private static final int DEFAULT_EVENT_VOICES = 2;
+
     private final Map<String, String> eventToFile = new HashMap<>();
-    private Clip backgroundClip; // NEW: For looping background music
-    private long backgroundClipPosition; // NEW: To store pause position
+    private final Map<String, Integer> eventVoiceLimit = new HashMap<>();
+
+    // Decoded PCM per event; MISSING marks events whose resource is absent or undecodable
+    private static final DecodedSound MISSING = new DecodedSound(null, null);
+    private final Map<String, DecodedSound> decoded = new ConcurrentHashMap<>();
+    private final List<Voice> voices = new ArrayList<>();
+    private long playCounter = 0;
+
+    private final MusicPlayer music = new MusicPlayer();
 
     public SoundManager() {
         // Existing event mappings
@@ -22,77 +37,146 @@ public class SoundManager {
         eventToFile.put("lose", "/sounds/lose.wav");
         // NEW: Sci-fi background track
         eventToFile.put("background", "/sounds/scifi_maze_track.wav");
-    }
+        // Per-level tracks go here as "music<level>" once the assets exist
 
-    // NEW: Start background music (looping)
-    public void startBackgroundMusic() {
-        stopBackgroundMusic(); // Ensure no existing clip is playing
-        String resource = eventToFile.get("background");
-        if (resource == null) {
-            Toolkit.getDefaultToolkit().beep();
-            return;
-        }
-        try (InputStream is = getClass().getResourceAsStream(resource)) {
-            if (is == null) {
-                Toolkit.getDefaultToolkit().beep();
-                return;
+        // Repeating cues never stack up; one glow or fanfare at a time is plenty
+        eventVoiceLimit.put("glow", 1);
+        eventVoiceLimit.put("locked", 1);
+        eventVoiceLimit.put("win", 1);
+        eventVoiceLimit.put("lose", 1);
+
+        // Decode the one-shots up front, off the EDT, so the first pickup doesn't stall input
+        Thread preload = new Thread(() -> {
+            for (String event : eventToFile.keySet()) {
+                if (!event.equals("background") && !event.startsWith("music")) decode(event);
             }
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(is);
-            backgroundClip = AudioSystem.getClip();
-            backgroundClip.open(audioIn);
-            backgroundClip.loop(Clip.LOOP_CONTINUOUSLY); // Loop indefinitely
-            backgroundClip.start();
-        } catch (Exception e) {
-            Toolkit.getDefaultToolkit().beep();
-            System.err.println("Error starting background music: " + e.getMessage());
-        }
+        }, "sound-preload");
+        preload.setDaemon(true);
+        preload.start();
+    }
+
+    // Crossfades to the level's own track, or the shared background track if it has none
+    public void playLevelMusic(int level) {
+        String track = eventToFile.get("music" + level);
+        if (track == null || MusicPlayer.class.getResource(track) == null) track = eventToFile.get("background");
+        music.play(track);
     }
 
     // NEW: Stop background music
     public void stopBackgroundMusic() {
-        if (backgroundClip != null && backgroundClip.isRunning()) {
-            backgroundClip.stop();
-            backgroundClip.close();
-            backgroundClip = null;
-        }
-        backgroundClipPosition = 0;
+        music.stop();
     }
 
-    // NEW: Pause background music
+    // NEW: Pause background music (resumes on the same frame)
     public void pauseBackgroundMusic() {
-        if (backgroundClip != null && backgroundClip.isRunning()) {
-            backgroundClipPosition = backgroundClip.getMicrosecondPosition();
-            backgroundClip.stop();
-        }
+        music.pause();
     }
 
     // NEW: Resume background music
     public void resumeBackgroundMusic() {
-        if (backgroundClip != null && !backgroundClip.isRunning()) {
-            backgroundClip.setMicrosecondPosition(backgroundClipPosition);
-            backgroundClip.loop(Clip.LOOP_CONTINUOUSLY);
-            backgroundClip.start();
-        }
+        music.resume();
     }
 
-    // Existing: Play one-shot event sound
-    public void playEvent(String event) {
-        String resource = eventToFile.get(event);
-        if (resource == null) {
+    /* --------------------------------------------------------------
+       ONE-SHOT EVENTS – decoded once, played through a bounded pool
+       of reusable clips. A finished clip stays open for the next play
+       of the same event; when the pool is full the oldest voice is
+       stolen, so native lines never pile up.
+       -------------------------------------------------------------- */
+    public synchronized void playEvent(String event) {
+        DecodedSound sound = decode(event);
+        if (sound == MISSING) {
             Toolkit.getDefaultToolkit().beep();
             return;
         }
-        try (InputStream is = getClass().getResourceAsStream(resource)) {
-            if (is == null) {
-                Toolkit.getDefaultToolkit().beep();
-                return;
-            }
-            AudioInputStream audioIn = AudioSystem.getAudioInputStream(is);
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioIn);
-            clip.start();
+        try {
+            Voice voice = acquireVoice(event, sound);
+            voice.startedAt = ++playCounter;
+            voice.playing = true;
+            voice.clip.setFramePosition(0);
+            voice.clip.start();
         } catch (Exception e) {
             Toolkit.getDefaultToolkit().beep();
         }
     }
+
+    // Closes every pooled line, e.g. on shutdown
+    public synchronized void releaseVoices() {
+        for (Voice v : voices) v.clip.close();
+        voices.clear();
+    }
+
+    private Voice acquireVoice(String event, DecodedSound sound) throws LineUnavailableException {
+        int limit = eventVoiceLimit.getOrDefault(event, DEFAULT_EVENT_VOICES);
+        int sameEvent = 0;
+        Voice idle = null, oldestSame = null, oldest = null;
+        for (Voice v : voices) {
+            if (oldest == null || v.startedAt < oldest.startedAt) oldest = v;
+            if (!v.event.equals(event)) continue;
+            sameEvent++;
+            if (!v.playing && !v.clip.isRunning() && idle == null) idle = v;
+            if (oldestSame == null || v.startedAt < oldestSame.startedAt) oldestSame = v;
+        }
+
+        if (idle != null) return idle;
+        if (sameEvent >= limit) {            // restart this event's oldest voice
+            oldestSame.clip.stop();
+            return oldestSame;
+        }
+        if (voices.size() >= MAX_VOICES) {   // steal the oldest voice of any event
+            oldest.clip.close();
+            voices.remove(oldest);
+        }
+
+        Clip clip = AudioSystem.getClip();
+        clip.open(sound.format, sound.pcm, 0, sound.pcm.length);
+        Voice voice = new Voice(event, clip);
+        clip.addLineListener(e -> {
+            if (e.getType() == LineEvent.Type.STOP) voice.playing = false;
+        });
+        voices.add(voice);
+        return voice;
+    }
+
+    private DecodedSound decode(String event) {
+        return decoded.computeIfAbsent(event, key -> {
+            String resource = eventToFile.get(key);
+            if (resource == null) return MISSING;
+            PerfEvents.AudioDecode decodeEvent = new PerfEvents.AudioDecode();
+            decodeEvent.begin();
+            try (InputStream is = getClass().getResourceAsStream(resource)) {
+                if (is == null) return MISSING;
+                AudioInputStream in = AudioSystem.getAudioInputStream(new BufferedInputStream(is));
+                AudioFormat src = in.getFormat();
+                if (src.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
+                    AudioFormat pcm = new AudioFormat(src.getSampleRate(), 16, src.getChannels(), true, false);
+                    in = AudioSystem.getAudioInputStream(pcm, in);
+                }
+                DecodedSound sound = new DecodedSound(in.getFormat(), in.readAllBytes());
+                if (decodeEvent.shouldCommit()) {
+                    decodeEvent.sound = key;
+                    decodeEvent.bytes = sound.pcm.length;
+                    decodeEvent.commit();
+                }
+                return sound;
+            } catch (Exception e) {
+                System.err.println("Error decoding sound " + key + ": " + e.getMessage());
+                return MISSING;
+            }
+        });
+    }
+
+    private record DecodedSound(AudioFormat format, byte[] pcm) {}
+
+    private static final class Voice {
+        final String event;
+        final Clip clip;
+        long startedAt;
+        volatile boolean playing;
+
+        Voice(String event, Clip clip) {
+            this.event = event;
+            this.clip = clip;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/StoryLog.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import javax.swing.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/* --------------------------------------------------------------
+   Story log as a list model over a ring buffer of lines. Only the
+   newest 'capacity' lines are kept, so a flood of messages costs a
+   fixed amount of memory. append() may be called from any thread:
+   messages queue up and are applied on the EDT in one batch, with at
+   most one invokeLater in flight, so a burst becomes a single model
+   update instead of one per message.
+
+   System properties:
+     maze.log.capacity  lines kept on screen (default 500)
+     maze.log.file      if set, every line is also appended to this
+                        file from a background thread
+   -------------------------------------------------------------- */
+public class StoryLog extends AbstractListModel<String> {
+    public static final int DEFAULT_CAPACITY = 500;
+
+    private final String[] lines;
+    private int head = 0, size = 0;
+
+    private final ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final List<Runnable> flushListeners = new ArrayList<>();
+
+    private final Path persistFile;
+    private final ExecutorService persistence;
+
+    public StoryLog() {
+        this(Integer.getInteger("maze.log.capacity", DEFAULT_CAPACITY), System.getProperty("maze.log.file"));
+    }
+
+    public StoryLog(int capacity, String persistTo) {
+        lines = new String[Math.max(1, capacity)];
+        persistFile = persistTo != null ? Paths.get(persistTo) : null;
+        persistence = persistFile == null ? null : Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "log-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Thread-safe; the text may hold several lines
+    public void append(String text) {
+        pending.add(text);
+        if (flushScheduled.compareAndSet(false, true)) SwingUtilities.invokeLater(this::flush);
+    }
+
+    // Called on the EDT after each batch, e.g. to keep the view scrolled to the bottom
+    public void addFlushListener(Runnable r) {
+        flushListeners.add(r);
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<String> batch = new ArrayList<>();
+        String text;
+        while ((text = pending.poll()) != null) {
+            int start = 0;
+            for (int i = 0; i <= text.length(); i++) {
+                if (i == text.length() || text.charAt(i) == '\n') {
+                    // A trailing newline ends the message, it is not a line of its own
+                    if (i < text.length() || i > start) batch.add(text.substring(start, i));
+                    start = i + 1;
+                }
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        int added = Math.min(batch.size(), lines.length);
+        int evicted = Math.max(0, size + added - lines.length);
+        for (int k = batch.size() - added; k < batch.size(); k++) {
+            lines[(head + size) % lines.length] = batch.get(k);
+            if (size < lines.length) size++;
+            else head = (head + 1) % lines.length;
+        }
+        if (evicted > 0) fireIntervalRemoved(this, 0, evicted - 1);
+        fireIntervalAdded(this, size - added, size - 1);
+        for (Runnable r : flushListeners) r.run();
+
+        if (persistence != null) persistence.execute(() -> persist(batch));
+    }
+
+    private void persist(List<String> batch) {
+        try (BufferedWriter out = Files.newBufferedWriter(persistFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (String line : batch) {
+                out.write(line);
+                out.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing log file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public int getSize() { return size; }
+
+    @Override
+    public String getElementAt(int index) { return lines[(head + index) % lines.length]; }
+}
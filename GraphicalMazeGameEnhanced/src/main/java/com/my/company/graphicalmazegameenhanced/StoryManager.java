@@ -3,57 +3,78 @@ package com.mycompany.graphicalmazegameenhanced;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class StoryManager {
-    private final JTextArea storyLog = new JTextArea();
-    private String activeSpeech = "";
-    private boolean showingSpeech = false;
-
-    public StoryManager() {
-        storyLog.setEditable(false);
-        storyLog.setWrapStyleWord(true);
-        storyLog.setLineWrap(true);
+    private static final int LOG_LINE_HEIGHT = 18;
+    private static final long SPEECH_DURATION_MS = 3000;
+    private static final Color BUBBLE_FILL = new Color(255, 255, 255, 230);
+    private static final Font BUBBLE_FONT = new Font("Serif", Font.PLAIN, 14);
+
+    // Bounded model; the JList only lays out and paints the rows on screen
+    private final StoryLog log = new StoryLog();
+    private final JList<String> storyLog = new JList<>(log);
+    // Bubble state is read while painting on the EDT and cleared from the scheduler thread
+    private final GameScheduler scheduler;
+    private volatile String activeSpeech = null;   // null while no bubble shows
+    private GameScheduler.Handle speechExpiry;
+    private int speechGeneration = 0;
+
+    public StoryManager(GameScheduler scheduler) {
+        this.scheduler = scheduler;
+        storyLog.setFocusable(false);
         storyLog.setFont(new Font("Serif", Font.PLAIN, 14));
+        storyLog.setFixedCellHeight(LOG_LINE_HEIGHT);
+        storyLog.setFixedCellWidth(1);   // fixed sizes: layout never measures every row; rows stretch to the viewport
+        storyLog.setSelectionModel(new DefaultListSelectionModel() {
+            @Override public void setSelectionInterval(int a, int b) { }   // read-only log
+        });
+        log.addFlushListener(() -> storyLog.ensureIndexIsVisible(log.getSize() - 1));
     }
 
     public JScrollPane createLogScrollPane() {
         return new JScrollPane(storyLog);
     }
 
+    // Safe from any thread; batched onto the EDT by StoryLog
     public void appendToLog(String text) {
-        SwingUtilities.invokeLater(() -> {
-            storyLog.append(text);
-            storyLog.setCaretPosition(storyLog.getDocument().getLength());
-        });
+        log.append(text);
     }
 
-    public void showSpeechBubble(String text) {
+    // A new bubble replaces the old one and restarts the expiry
+    public synchronized void showSpeechBubble(String text) {
+        if (speechExpiry != null) speechExpiry.cancel();
         activeSpeech = text;
-        showingSpeech = true;
-        new Timer().schedule(new TimerTask() {
-            @Override
-            public void run() {
-                showingSpeech = false;
-                activeSpeech = "";
-            }
-        }, 3000);
+        int generation = ++speechGeneration;
+        speechExpiry = scheduler.after(SPEECH_DURATION_MS, () -> expireSpeech(generation));
+    }
+
+    // An expiry that lost the race with a newer bubble leaves that bubble alone
+    private synchronized void expireSpeech(int generation) {
+        if (generation != speechGeneration) return;
+        activeSpeech = null;
+        speechExpiry = null;
     }
 
     public boolean hasActiveSpeech() {
-        return showingSpeech;
+        return activeSpeech != null;
+    }
+
+    // Fills and returns 'bounds', so the per-frame repaint bookkeeping allocates nothing
+    public Rectangle getSpeechBubbleBounds(int playerX, int playerY, int cellSize, Rectangle bounds) {
+        bounds.setBounds(playerY * cellSize + 20, playerX * cellSize - 60, 200, 50);
+        return bounds;
     }
 
     public void drawSpeechBubble(Graphics2D g2d, int playerX, int playerY, int cellSize) {
-        if (!showingSpeech) return;
+        String activeSpeech = this.activeSpeech;
+        if (activeSpeech == null) return;
         int bubbleX = playerY * cellSize + 20;
         int bubbleY = playerX * cellSize - 60;
-        g2d.setColor(new Color(255, 255, 255, 230));
+        g2d.setColor(BUBBLE_FILL);
         g2d.fillRoundRect(bubbleX, bubbleY, 200, 50, 20, 20);
         g2d.setColor(Color.BLACK);
         g2d.drawRoundRect(bubbleX, bubbleY, 200, 50, 20, 20);
-        g2d.setFont(new Font("Serif", Font.PLAIN, 14));
+        g2d.setFont(BUBBLE_FONT);
         FontMetrics fm = g2d.getFontMetrics();
         int tx = bubbleX + (200 - fm.stringWidth(activeSpeech)) / 2;
         int ty = bubbleY + 30;
@@ -0,0 +1,245 @@
+// File: src/main/java/com/mycompany/graphicalmazegameenhanced/Theme.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.function.Consumer;
+
+/* --------------------------------------------------------------
+   Everything a level is drawn with, built once and shared; levels
+   pick one of the looks by theme id (LevelPack.Level.theme):
+     - paints and colors for the static tiles GamePanel renders into
+       its chunk images (defined for a cell at (0,0); the chunk
+       renderer translates to each cell)
+     - pre-rendered sprites for everything drawn every frame: people
+       per facing, items, the exit and item glow per glow step, the
+       particle and the path stripe
+   A frame then only blits images. Antialiased shapes and gradients
+   allocate inside Java2D on every call, an image blit does not.
+
+   The glow pulses through GLOW_LEVELS steps (0.3 -> 0.9 alpha), so
+   the pulsing glow is GLOW_LEVELS ready-made images.
+   -------------------------------------------------------------- */
+public final class Theme {
+    public static final int GLOW_LEVELS = 10;
+    public static final int SPRITE_PAD = 5;     // sprites overhang their cell by this much (boss aura)
+    public static final int HALO_PAD = 20;      // item glow reaches this far past its cell
+    private static final int CELL = GraphicalMazeGameEnhanced.CELL_SIZE;
+
+    /* --------------------------------------------------------------
+       SHARED BY ALL LEVELS
+       -------------------------------------------------------------- */
+    static final Paint HEDGE = new GradientPaint(0, 0, new Color(60, 160, 60), CELL, CELL, new Color(30, 100, 30));
+    static final Color HEDGE_LEAVES = new Color(0, 120, 0, 150);
+    static final Color HEDGE_VEIN = new Color(0, 80, 0, 100);
+    static final Paint BRICK = new GradientPaint(0, 0, new Color(139, 69, 19), CELL, CELL, new Color(100, 50, 10));
+    static final Color BRICK_MORTAR = new Color(80, 40, 0);
+    static final Color GOLD = new Color(255, 215, 0);
+    static final Color TRUNK = new Color(139, 69, 19);
+    static final Color ORB = new Color(0, 200, 255, 150);
+    static final Color ORB_CORE = new Color(255, 255, 255, 100);
+
+    private static final Color SPIRE = new Color(255, 200, 0);
+    private static final Color HEART = new Color(220, 20, 60);
+    private static final Color PRISM = new Color(160, 120, 255);
+    private static final Polygon ITEM = new Polygon(new int[] {25, 10, 40}, new int[] {10, 40, 40}, 3);
+    private static final Paint EXIT_DOOR = new GradientPaint(0, 0, new Color(0, 100, 0), 40, 40, new Color(0, 150, 0));
+    private static final Color SKIN = new Color(255, 220, 200);
+    private static final Color SAGE_ROBE = new Color(200, 0, 200, 150);
+    private static final Polygon ROBE = new Polygon(new int[] {15, 25, 35}, new int[] {25, 40, 25}, 3);
+    private static final Color ARMOR = new Color(150, 150, 150, 150);
+    private static final Color SPIRIT_AURA = new Color(0, 255, 255, 100);
+    private static final Color BOSS = new Color(120, 0, 120);
+    private static final Color BOSS_AURA = new Color(200, 0, 200, 50);
+    private static final Color PARTICLE = new Color(1.0f, 1.0f, 0.0f, 0.5f);
+
+    static final Color OVERLAY_BACK = new Color(0, 0, 0, 170);
+    static final Font OVERLAY_FONT = new Font("Monospaced", Font.PLAIN, 12);
+    static final Color PAUSE_SHADE = new Color(0, 0, 0, 180);
+    static final Color FOG = new Color(0, 0, 0, 150);   // explored but out of sight
+    static final Font PAUSE_TITLE_FONT = new Font("Serif", Font.BOLD, 48);
+    static final Font PAUSE_HINT_FONT = new Font("Serif", Font.PLAIN, 24);
+
+    // Sprites that look the same on every level; drawn at (x - SPRITE_PAD, y - SPRITE_PAD)
+    static final BufferedImage[] PLAYER = new BufferedImage[4];
+    static final BufferedImage SAGE = sprite(g -> drawPerson(g, Color.MAGENTA, 2, true, false));
+    static final BufferedImage ITEM_CRYSTAL = sprite(g -> drawItem(g, Color.YELLOW));
+    static final BufferedImage ITEM_SEAL = sprite(g -> drawItem(g, Color.WHITE));
+    static final BufferedImage ITEM_SPIRE = sprite(g -> drawItem(g, SPIRE));
+    static final BufferedImage ITEM_HEART = sprite(g -> drawItem(g, HEART));
+    static final BufferedImage ITEM_PRISM = sprite(g -> drawItem(g, PRISM));
+    static final BufferedImage[] EXIT = new BufferedImage[GLOW_LEVELS];
+    // Drawn at (x - HALO_PAD, y - HALO_PAD)
+    static final BufferedImage[] HALO = new BufferedImage[GLOW_LEVELS];
+    // Drawn at the particle's top-left corner
+    static final BufferedImage SPARK = image(5, 5, 0, g -> {
+        g.setColor(PARTICLE);
+        g.fillOval(0, 0, 5, 5);
+    });
+    static {
+        for (int f = 0; f < 4; f++) {
+            int facing = f;
+            PLAYER[f] = sprite(g -> drawPerson(g, Color.BLUE, facing, false, false));
+        }
+        for (int i = 0; i < GLOW_LEVELS; i++) {
+            float alpha = glowAlpha(i);
+            EXIT[i] = sprite(g -> drawExit(g, new Color(255, 255, 0, (int) (alpha * 255))));
+            HALO[i] = image(CELL + 2 * HALO_PAD, CELL + 2 * HALO_PAD, HALO_PAD, g -> {
+                g.setColor(new Color(1.0f, 1.0f, 0.0f, alpha * 0.5f));
+                g.fillOval(-20, -20, CELL + 40, CELL + 40);
+                g.setColor(new Color(1.0f, 1.0f, 0.0f, alpha));
+                g.fillOval(-15, -15, CELL + 30, CELL + 30);
+            });
+        }
+    }
+
+    /* --------------------------------------------------------------
+       PER THEME
+       -------------------------------------------------------------- */
+    private static final Theme[] THEMES = {
+        // Theme 1 – meadow: stone paths, brick buildings, red guardians
+        new Theme(1, new GradientPaint(0, 0, new Color(144, 238, 144), CELL, CELL, new Color(100, 200, 100)),
+                  new Color(80, 160, 80, 100), true, 10, 5,
+                  new Color(169, 169, 169), Color.RED, true, false),
+        // Theme 2 – forest: dirt paths, hedges only, green guardians
+        new Theme(2, new GradientPaint(0, 0, new Color(50, 150, 50), CELL, CELL, new Color(30, 100, 30)),
+                  new Color(100, 80, 60, 100), false, 15, 5,
+                  new Color(139, 69, 19), new Color(0, 100, 0), false, false),
+        // Theme 3 – night sky: orbs instead of trees, spirit guardians
+        new Theme(3, new GradientPaint(0, 0, new Color(0, 50, 100), CELL, CELL, new Color(0, 20, 50)),
+                  new Color(255, 255, 255, 100), true, 20, 3,
+                  new Color(139, 69, 19), new Color(0, 150, 255), false, true),
+    };
+
+    final int id;
+    final Paint floor;
+    final Color floorSpeck;
+    final boolean roundSpeck;
+    final int speckAt, speckSize;
+    final Color stripe;
+    final boolean buildings;      // every other wall cell is a brick building
+    final boolean celestial;      // orb decorations, spirit aura on monsters
+    final BufferedImage[] monster = new BufferedImage[4];
+    final BufferedImage[] boss = new BufferedImage[4];
+    final BufferedImage stripeSprite;   // the path stripe, for redrawing it over the player
+
+    private Theme(int id, Paint floor, Color floorSpeck, boolean roundSpeck, int speckAt, int speckSize,
+                  Color stripe, Color monsterColor, boolean buildings, boolean celestial) {
+        this.id = id;
+        this.floor = floor;
+        this.floorSpeck = floorSpeck;
+        this.roundSpeck = roundSpeck;
+        this.speckAt = speckAt;
+        this.speckSize = speckSize;
+        this.stripe = stripe;
+        this.buildings = buildings;
+        this.celestial = celestial;
+        for (int f = 0; f < 4; f++) {
+            int facing = f;
+            monster[f] = sprite(g -> drawPerson(g, monsterColor, facing, false, celestial));
+            boss[f] = sprite(g -> {
+                drawPerson(g, BOSS, facing, false, celestial);
+                g.setColor(BOSS_AURA);
+                g.fillOval(5, -5, CELL - 10, CELL + 10);
+            });
+        }
+        stripeSprite = sprite(g -> {
+            g.setColor(stripe);
+            g.fillRect(10, 20, CELL - 20, 10);
+        });
+    }
+
+    // Unknown ids fall back to the nearest theme
+    public static Theme of(int id) {
+        return THEMES[Math.max(0, Math.min(THEMES.length, id) - 1)];
+    }
+
+    // Alpha of glow step 'level', 0 .. GLOW_LEVELS - 1
+    public static float glowAlpha(int level) {
+        return 0.3f + 0.6f * level / (GLOW_LEVELS - 1);
+    }
+
+    static BufferedImage item(char type) {
+        return switch (type) {
+            case 'A' -> ITEM_CRYSTAL;
+            case 'S' -> ITEM_SEAL;
+            case 'H' -> ITEM_HEART;
+            case 'F' -> ITEM_PRISM;
+            default -> ITEM_SPIRE;
+        };
+    }
+
+    public int getId() { return id; }
+
+    /* --------------------------------------------------------------
+       SPRITE PAINTERS – one cell with its top-left at (0,0)
+       -------------------------------------------------------------- */
+    private static BufferedImage sprite(Consumer<Graphics2D> painter) {
+        return image(CELL + 2 * SPRITE_PAD, CELL + 2 * SPRITE_PAD, SPRITE_PAD, painter);
+    }
+
+    private static BufferedImage image(int width, int height, int origin, Consumer<Graphics2D> painter) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.translate(origin, origin);
+            painter.accept(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static void drawItem(Graphics2D g, Color color) {
+        g.setColor(color);
+        g.fillPolygon(ITEM);
+    }
+
+    private static void drawExit(Graphics2D g, Color light) {
+        g.setPaint(EXIT_DOOR);
+        g.fillRect(10, 10, 30, 40);
+        g.setColor(GOLD);
+        g.drawRect(8, 8, 34, 44);
+        g.setColor(light);
+        g.fillOval(20, 30, 5, 5);
+    }
+
+    private static void drawPerson(Graphics2D g, Color color, int facing, boolean isSage, boolean spirit) {
+        g.setColor(color);
+        g.fillOval(15, 5, 20, 20);
+        g.setColor(SKIN);
+        g.fillOval(18, 8, 14, 14);
+        g.setColor(color);
+        g.fillRect(22, 25, 6, 15);
+        g.drawLine(25, 28, 15, 23);
+        g.drawLine(25, 28, 35, 23);
+        g.drawLine(24, 40, 20, 45);
+        g.drawLine(26, 40, 30, 45);
+        if (isSage) {
+            g.setColor(SAGE_ROBE);
+            g.fillPolygon(ROBE);
+            g.setColor(Color.GRAY);
+            g.fillRect(23, 10, 4, 10);
+        } else {
+            g.setColor(ARMOR);
+            g.fillRect(20, 25, 10, 10);
+            g.setColor(Color.BLACK);
+            g.fillRect(22, 30, 6, 2);
+        }
+        if (spirit) {
+            g.setColor(SPIRIT_AURA);
+            g.fillOval(10, 0, 30, 30);
+            g.setColor(Color.WHITE);
+            g.fillOval(20, 10, 4, 4);
+            g.fillOval(26, 10, 4, 4);
+        }
+        g.setColor(Color.BLACK);
+        switch (facing) {
+            case 0: g.drawLine(25, 15, 25, 5); break;
+            case 1: g.drawLine(25, 15, 35, 15); break;
+            case 2: g.drawLine(25, 15, 25, 25); break;
+            case 3: g.drawLine(25, 15, 15, 15); break;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+// File: src/test/java/com/mycompany/graphicalmazegameenhanced/MonsterManagerTest.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/* --------------------------------------------------------------
+   The monster turn is split over a fork-join pool on big levels; the
+   result has to be exactly what one unsplit pass on a single thread
+   computes from the same seed, whatever pool runs it.
+   -------------------------------------------------------------- */
+class MonsterManagerTest {
+    private static final int SIZE = 1001;
+    private static final int STEPS = 25;
+
+    // moveMonsters logs its errors instead of throwing, so a failure would otherwise look like "nobody moved"
+    private static GameSession bigLevel(Path maze, ForkJoinPool pool) throws IOException {
+        GameSession session = new GameSession();
+        session.setListener(new GameListener() {
+            @Override public void onLog(String text) { assertFalse(text.startsWith("Error"), text); }
+        });
+        session.setSeed(1234);
+        session.loadMazeFile(maze, 1);
+        session.getMonsterManager().setPool(pool);
+        return session;
+    }
+
+    @Test
+    void parallelStepsMatchASingleThread(@TempDir Path dir) throws IOException {
+        Path maze = dir.resolve("big.clmz");
+        MazeGenerator.generateToFile(maze, 99, SIZE, SIZE, 'A');
+
+        ForkJoinPool single = new ForkJoinPool(1), several = new ForkJoinPool(4);
+        try {
+            GameSession reference = bigLevel(maze, null);
+            assertTrue(reference.getMonsterManager().getEntityCount() >= MonsterManager.PARALLEL_THRESHOLD);
+            GameSession common = bigLevel(maze, ForkJoinPool.commonPool());
+            GameSession oneWorker = bigLevel(maze, single);
+            GameSession split = bigLevel(maze, several);
+            int[] startX = new int[reference.getMonsterManager().getEntityCount()];
+            for (int e = 0; e < startX.length; e++) startX[e] = reference.getMonsterManager().getX(e);
+
+            for (int step = 0; step < STEPS; step++) {
+                for (GameSession session : new GameSession[] {reference, common, oneWorker, split}) {
+                    session.getMonsterManager().moveMonsters();
+                }
+                assertSameMonsters(reference, common);
+                assertSameMonsters(reference, oneWorker);
+                assertSameMonsters(reference, split);
+            }
+            int moved = 0;
+            for (int e = 0; e < startX.length; e++) if (reference.getMonsterManager().getX(e) != startX[e]) moved++;
+            assertTrue(moved > 0);
+            assertArrayEquals(packed(reference), packed(common));
+            assertArrayEquals(packed(reference), packed(oneWorker));
+            assertArrayEquals(packed(reference), packed(split));
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    private static void assertSameMonsters(GameSession expected, GameSession actual) {
+        MonsterManager a = expected.getMonsterManager(), b = actual.getMonsterManager();
+        assertEquals(a.getEntityCount(), b.getEntityCount());
+        for (int e = 0; e < a.getEntityCount(); e++) {
+            assertEquals(a.getX(e), b.getX(e));
+            assertEquals(a.getY(e), b.getY(e));
+            assertEquals(a.getFacing(e), b.getFacing(e));
+            assertEquals(a.isAlive(e), b.isAlive(e));
+        }
+    }
+
+    private static byte[] packed(GameSession session) {
+        ByteBuffer view = session.getMaze().packedView();
+        byte[] bytes = new byte[view.remaining()];
+        view.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,85 @@
+// File: src/test/java/com/mycompany/graphicalmazegameenhanced/ReplayEngineTest.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/* --------------------------------------------------------------
+   The determinism contract: a run recorded by InputRecorder replays
+   tick for tick to the same GameSession.stateHash(), from a fresh
+   start and from a loaded mid-run state.
+   -------------------------------------------------------------- */
+class ReplayEngineTest {
+
+    // Random inputs on random ticks, every one recorded just before it is applied; returns the last input's tick
+    private static long play(GameSession session, InputRecorder recorder, long seed, int ticks) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        GameInput[] inputs = GameInput.values();
+        long lastInput = session.getTickCount();
+        for (int t = 0; t < ticks && !session.isOver() && !session.isWon(); t++) {
+            session.tick();
+            if (random.nextInt(3) != 0) continue;
+            GameInput input = inputs[random.nextInt(inputs.length)];
+            recorder.record(session.getTickCount(), input);
+            session.step(input);
+            lastInput = session.getTickCount();
+        }
+        return lastInput;
+    }
+
+    @Test
+    void recordedRunsReplayToTheSameHash(@TempDir Path dir) throws IOException {
+        for (boolean endurance : new boolean[] {false, true}) {
+            GameSession session = new GameSession();
+            if (endurance) session.startEndurance(42);
+            else session.startCampaign(42);
+            Path file = dir.resolve(endurance ? "endurance.clrp" : "campaign.clrp");
+            try (InputRecorder recorder = new InputRecorder(file, session)) {
+                play(session, recorder, 42, 2000);
+                recorder.finish(session);
+            }
+
+            ReplayEngine.Result result = ReplayEngine.replay(file);
+            assertTrue(result.hasExpectedHash());
+            assertEquals(session.stateHash(), result.expectedHash());
+            assertEquals(result.expectedHash(), result.actualHash());
+            assertTrue(result.matches());
+        }
+    }
+
+    @Test
+    void replayStartsFromALoadedState(@TempDir Path dir) throws IOException {
+        GameSession session = SaveLoadManagerTest.playedSession(9, true);
+        GameSession resumed = new GameSession();
+        resumed.restore(session.snapshot());
+
+        Path file = dir.resolve("resumed.clrp");
+        try (InputRecorder recorder = new InputRecorder(file, resumed)) {
+            play(resumed, recorder, 9, 1000);
+            recorder.finish(resumed);
+        }
+        assertTrue(ReplayEngine.replay(file).matches());
+    }
+
+    @Test
+    void aRecordingCutShortStillReplaysWithoutAHash(@TempDir Path dir) throws IOException {
+        GameSession session = new GameSession();
+        session.startEndurance(5);
+        Path file = dir.resolve("cut.clrp");
+        long first = session.getTickCount(), lastInput;
+        try (InputRecorder recorder = new InputRecorder(file, session)) {
+            lastInput = play(session, recorder, 5, 500);   // closed without finish(), as after a crash
+        }
+
+        // Nothing after the last input was recorded, so that is where the replay stops
+        ReplayEngine.Result result = ReplayEngine.replay(file);
+        assertFalse(result.hasExpectedHash());
+        assertFalse(result.matches());
+        assertEquals(lastInput - first, result.ticks());
+    }
+}
@@ -0,0 +1,135 @@
+// File: src/test/java/com/mycompany/graphicalmazegameenhanced/SaveLoadManagerTest.java
+package com.mycompany.graphicalmazegameenhanced;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/* --------------------------------------------------------------
+   The save format round-trips a session exactly: snapshot, encode,
+   decode and restore must give back a session with the same
+   stateHash, on disk and in memory, with and without the optional
+   SEEN section.
+   -------------------------------------------------------------- */
+class SaveLoadManagerTest {
+
+    // A live session some way into a run: moved around, monsters stepped, part of the level explored.
+    // A game that is over is never saved (restore always resumes play), so it stops just before the end.
+    static GameSession playedSession(long seed, boolean endurance) {
+        GameSession session = new GameSession();
+        if (endurance) session.startEndurance(seed);
+        else session.startCampaign(seed);
+        SplittableRandom random = new SplittableRandom(seed);
+        GameInput[] inputs = GameInput.values();
+        for (int t = 0; t < 400; t++) {
+            GameSnapshot before = session.snapshot();
+            session.tick();
+            if (t % 3 == 0) session.step(inputs[random.nextInt(inputs.length)]);
+            if (session.isOver() || session.isWon()) {
+                session.restore(before);
+                break;
+            }
+        }
+        return session;
+    }
+
+    static GameSnapshot decode(ByteBuffer[] parts) throws IOException {
+        int length = 0;
+        for (ByteBuffer part : parts) length += part.remaining();
+        ByteBuffer all = ByteBuffer.allocate(length);
+        for (ByteBuffer part : parts) all.put(part.duplicate());
+        return SaveLoadManager.decode(all.flip());
+    }
+
+    @Test
+    void encodeDecodeRestoreKeepsTheExactState() throws IOException {
+        for (boolean endurance : new boolean[] {false, true}) {
+            GameSession session = playedSession(42, endurance);
+            GameSnapshot snapshot = session.snapshot();
+
+            GameSnapshot decoded = decode(SaveLoadManager.encode(snapshot));
+            assertEquals(snapshot.stateHash(), decoded.stateHash());
+            assertArrayEquals(snapshot.explored(), decoded.explored());
+
+            GameSession restored = new GameSession();
+            restored.restore(decoded);
+            assertEquals(session.stateHash(), restored.stateHash());
+            assertEquals(session.getPlayerX(), restored.getPlayerX());
+            assertEquals(session.getPlayerY(), restored.getPlayerY());
+            assertTrue(restored.getFieldOfView().isExplored(restored.getPlayerX(), restored.getPlayerY()));
+        }
+    }
+
+    @Test
+    void writeAndReadGoThroughTheFile(@TempDir Path dir) throws IOException {
+        GameSession session = playedSession(7, true);
+        Path file = dir.resolve("save.dat");
+        SaveLoadManager.write(file, session.snapshot());
+
+        GameSession restored = new GameSession();
+        restored.restore(SaveLoadManager.read(file));
+        assertEquals(session.stateHash(), restored.stateHash());
+    }
+
+    @Test
+    void savesWithoutASeenSectionLoadWithNothingExplored() throws IOException {
+        GameSnapshot snapshot = playedSession(3, false).snapshot();
+        ByteBuffer[] parts = SaveLoadManager.encode(snapshot);
+        ByteBuffer[] withoutSeen = Arrays.copyOf(parts, parts.length - 1);   // SEEN is written last
+
+        GameSnapshot decoded = decode(withoutSeen);
+        assertNull(decoded.explored());
+        assertArrayEquals(snapshot.packedMaze(), decoded.packedMaze());
+
+        GameSession restored = new GameSession();
+        restored.restore(decoded);
+        assertEquals(snapshot.playerX(), restored.getPlayerX());
+        assertEquals(snapshot.playerY(), restored.getPlayerY());
+    }
+
+    @Test
+    void refusesFilesThatAreNotSaves() {
+        ByteBuffer notASave = ByteBuffer.allocate(16).putInt(0x12345678).putInt(2).flip();
+        assertThrows(IOException.class, () -> SaveLoadManager.decode(notASave));
+
+        ByteBuffer truncated = ByteBuffer.allocate(12).putInt(0x434C5356).putInt(2).putInt(0x53544154).flip();
+        assertThrows(IOException.class, () -> SaveLoadManager.decode(truncated));
+    }
+
+    // Part offsets of encode(): STAT fields after magic, version, tag, length, level, flags, endurance seed/depth
+    private static final int STAT = 0, PLAYER_X = 33, PLAYER_Y = 37, PLAYER_FACING = 41, SAGE_X = 45;
+    private static final int ENTS = 3, ENTITY_COUNT = 8, FIRST_FACING = 20, FIRST_TYPE = 21;
+    private static final int SEEN = 4, FIRST_WORD = 12;
+
+    @Test
+    void refusesStatesTheGameCouldNotHaveSaved() {
+        GameSession session = playedSession(11, true);   // 15x15: the explored bits don't fill their last word
+        assertTrue(session.getMonsterManager().getEntityCount() > 0);
+        GameSnapshot snapshot = session.snapshot();
+        int rows = snapshot.rows(), words = snapshot.explored().length;
+
+        assertRefused(snapshot, STAT, PLAYER_X, b -> b.putInt(PLAYER_X, rows));
+        assertRefused(snapshot, STAT, PLAYER_Y, b -> b.putInt(PLAYER_Y, -1));
+        assertRefused(snapshot, STAT, PLAYER_FACING, b -> b.putInt(PLAYER_FACING, 4));
+        assertRefused(snapshot, STAT, SAGE_X, b -> b.putInt(SAGE_X, rows + 5));
+        assertRefused(snapshot, ENTS, FIRST_FACING, b -> b.put(FIRST_FACING, (byte) 7));
+        assertRefused(snapshot, ENTS, FIRST_TYPE, b -> b.put(FIRST_TYPE, (byte) 9));
+        assertRefused(snapshot, ENTS, ENTITY_COUNT, b -> b.putInt(ENTITY_COUNT, Integer.MAX_VALUE));
+        assertRefused(snapshot, SEEN, FIRST_WORD, b -> b.putLong(FIRST_WORD + (words - 1) * 8, 1L << 63));
+    }
+
+    private static void assertRefused(GameSnapshot snapshot, int part, int offset, Consumer<ByteBuffer> corrupt) {
+        ByteBuffer[] parts = SaveLoadManager.encode(snapshot);
+        ByteBuffer copy = ByteBuffer.allocate(parts[part].remaining()).put(parts[part].duplicate()).flip();
+        corrupt.accept(copy);
+        parts[part] = copy;
+        assertThrows(IOException.class, () -> decode(parts), "corrupted at part " + part + " offset " + offset);
+    }
+}